@@ -1,8 +1,34 @@
+import struct
+import sys
+
 import pandas as pd
 import matplotlib.pyplot as plt
 
-# CSV-Datei einlesen
-df = pd.read_csv('log.csv', delimiter=';', decimal=',')
+COLUMNS = ['Generation', 'AverageFitness', 'BestFitness', 'BestOverallFitness',
+           'HydrophobicContacts', 'Overlaps', 'MutationRate', 'Evaluations', 'InfeasibleFraction',
+           'CacheHitRate', 'CacheEvictions']
+# Satzformat je Version, ältere Versionen haben nur die vorderen Spalten
+RECORDS = {1: '>idddiidq', 2: '>idddiidqd', 3: '>idddiidqddq'}
+
+
+# Binärformat (--log-format binary): Kopf "HPLG" + Version, dann 52 (Version 1), 60 (Version 2) bzw. 76 Byte pro Generation
+def read_binary(path):
+    with open(path, 'rb') as f:
+        data = f.read()
+    magic, version = struct.unpack_from('>4sI', data)
+    if magic != b'HPLG' or version not in RECORDS:
+        raise ValueError('Unbekanntes Format: ' + path)
+    record = struct.Struct(RECORDS[version])
+    rows = [record.unpack_from(data, offset) for offset in range(8, len(data), record.size)]
+    return pd.DataFrame(rows, columns=COLUMNS[:len(RECORDS[version]) - 1])
+
+
+# Log-Datei einlesen (log.csv oder die als Argument übergebene Datei)
+path = sys.argv[1] if len(sys.argv) > 1 else 'log.csv'
+if path.endswith('.bin'):
+    df = read_binary(path)
+else:
+    df = pd.read_csv(path, delimiter=';', decimal=',')
 
 # Graph erstellen
 plt.figure(figsize=(20, 10))
@@ -0,0 +1,74 @@
+package hpmodel;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+// Bewertung einer ganzen Population (200 zufällige Faltungen): einzeln über HPModel wie im GA
+// ohne --batch, oder kachelweise über BatchEvaluator mit dem skalaren bzw. dem Vector-API-Kernel
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class BatchEvaluatorBenchmark {
+
+    @Param({"SEQ20", "SEQ36", "SEQ48", "SEQ64", "RANDOM128"})
+    public String sequence;
+
+    @Param({"SQUARE", "CUBIC"})
+    public Lattice lattice;
+
+    private HPModel[] population;
+    private BatchEvaluator scalar;
+    private BatchEvaluator.Tile scalarTile;
+    private BatchEvaluator vector;
+    private BatchEvaluator.Tile vectorTile;
+
+    @Setup
+    public void setup() throws Exception {
+        String hpSequence = GeneticAlgorithm.convertToHP(HPModelBenchmark.sequence(sequence));
+        SplittableRandom random = new SplittableRandom(42);
+        population = new HPModel[200];
+        for (int i = 0; i < population.length; i++) {
+            population[i] = new HPModel(lattice, hpSequence, GeneticAlgorithm.randomMoves(hpSequence.length() - 1, lattice, random));
+        }
+        scalar = new BatchEvaluator(hpSequence, lattice, new BatchEvaluator.ScalarKernel());
+        scalarTile = scalar.newTile();
+        vector = new BatchEvaluator(hpSequence, lattice, new VectorKernel());
+        vectorTile = vector.newTile();
+    }
+
+    @Benchmark
+    public int objects() {
+        int energy = 0;
+        for (HPModel model : population) {
+            model.invalidate();
+            energy += model.calculateEnergy() + model.countOverlaps();
+        }
+        return energy;
+    }
+
+    @Benchmark
+    public long batchScalar() {
+        for (HPModel model : population) {
+            model.invalidate();
+        }
+        return scalar.evaluate(population, 0, population.length, scalarTile);
+    }
+
+    @Benchmark
+    public long batchVector() {
+        for (HPModel model : population) {
+            model.invalidate();
+        }
+        return vector.evaluate(population, 0, population.length, vectorTile);
+    }
+}
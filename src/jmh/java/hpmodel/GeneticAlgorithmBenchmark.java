@@ -0,0 +1,120 @@
+package hpmodel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+// GA-Operatoren auf einer bereits bewerteten Population
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class GeneticAlgorithmBenchmark {
+
+    @Param({"SEQ64"})
+    public String sequence;
+
+    @Param({"50", "200", "1000"})
+    public int populationSize;
+
+    @Param({"0.5", "4.0"})
+    public double mutationRate;
+
+    @Param({"ABSOLUTE", "RELATIVE"})
+    public Genome.Encoding encoding;
+
+    private String hpSequence;
+    private HPModel[] population;
+    private HPModel offspring;
+    private SplittableRandom random;
+    private RouletteWheel wheel;
+    private int[] selected;
+
+    @Setup
+    public void setup() throws Exception {
+        hpSequence = GeneticAlgorithm.convertToHP(HPModelBenchmark.sequence(sequence));
+        random = new SplittableRandom(42);
+        population = new HPModel[populationSize];
+        for (int i = 0; i < populationSize; i++) {
+            HPModel model = new HPModel(hpSequence, Genome.random(hpSequence.length() - 1, encoding, random));
+            model.calculateFitnessScore();
+            population[i] = model;
+        }
+        wheel = new RouletteWheel(populationSize);
+        wheel.build(population);
+        selected = new int[populationSize];
+        offspring = new HPModel(hpSequence, Genome.random(hpSequence.length() - 1, encoding, random));
+    }
+
+    @Benchmark
+    public List<HPModel> crossover() {
+        HPModel parent1 = population[random.nextInt(populationSize)];
+        HPModel parent2 = population[random.nextInt(populationSize)];
+        return GeneticAlgorithm.crossover(parent1, parent2, random, hpSequence);
+    }
+
+    @Benchmark
+    public HPModel mutate() {
+        GeneticAlgorithm.mutate(offspring, random, mutationRate);
+        return offspring;
+    }
+
+    @Benchmark
+    public HPModel tournamentSelection() {
+        return GeneticAlgorithm.tournamentSelection(population, random);
+    }
+
+    // Aufbau der Verteilung, einmal pro Generation
+    @Benchmark
+    public RouletteWheel rouletteBuild() {
+        wheel.build(population);
+        return wheel;
+    }
+
+    @Benchmark
+    public HPModel roulettePick() {
+        return population[wheel.pick(random)];
+    }
+
+    @Benchmark
+    public HPModel rouletteAliasPick() {
+        return population[wheel.pickAlias(random)];
+    }
+
+    // Alle Eltern einer Generation auf einmal
+    @Benchmark
+    public int[] stochasticUniversalSampling() {
+        wheel.sampleUniversal(populationSize, random, selected);
+        return selected;
+    }
+
+    // Vergleichswert: frühere Auswahl, die pro Elternteil die kumulierten Anteile als List<Double> neu aufbaut
+    @Benchmark
+    public HPModel fitnessProportionalSelectionList() {
+        double totalFitness = 0.0;
+        for (HPModel model : population) {
+            totalFitness += model.calculateFitnessScore();
+        }
+        List<Double> cumulativeProbabilities = new ArrayList<>();
+        double cumulativeSum = 0.0;
+        for (HPModel model : population) {
+            cumulativeSum += model.calculateFitnessScore() / totalFitness;
+            cumulativeProbabilities.add(cumulativeSum);
+        }
+        double randomValue = random.nextDouble();
+        for (int i = 0; i < cumulativeProbabilities.size(); i++) {
+            if (randomValue <= cumulativeProbabilities.get(i)) {
+                return population[i];
+            }
+        }
+        return population[population.length - 1];
+    }
+}
@@ -0,0 +1,183 @@
+package hpmodel;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+// Bewertung eines einzelnen HPModel für alle Examples-Sequenzen und synthetische lange Ketten
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class HPModelBenchmark {
+
+    @Param({"SEQ20", "SEQ24", "SEQ25", "SEQ36", "SEQ48", "SEQ50", "SEQ60", "SEQ64",
+            "RANDOM128", "RANDOM256", "RANDOM512", "RANDOM1024"})
+    public String sequence;
+
+    @Param({"SQUARE", "CUBIC"})
+    public Lattice lattice;
+
+    private String hpSequence;
+    private String moves;
+    private HPModel model;
+    private HPModel mutated;
+    private byte[] mutatedCodes;
+    private char[] mutatedMoves;
+    private SplittableRandom random;
+    private FitnessCache cache;
+
+    @Setup
+    public void setup() throws Exception {
+        hpSequence = GeneticAlgorithm.convertToHP(sequence(sequence));
+        random = new SplittableRandom(42);
+        moves = GeneticAlgorithm.randomMoves(hpSequence.length() - 1, lattice, random);
+        model = new HPModel(lattice, hpSequence, moves);
+        mutated = new HPModel(lattice, hpSequence, moves);
+        mutated.calculateFitnessScore();
+        mutatedCodes = mutated.getMoveCodes();
+        mutatedMoves = moves.toCharArray();
+        cache = new FitnessCache(1024);
+        cache.evaluate(new HPModel(lattice, hpSequence, moves));
+        checkDelta();
+    }
+
+    // Vor dem Messen: zufällige Änderungen von einem Zug bis zur ganzen Kette über setMoveCodes() auf
+    // einem bewerteten Modell müssen dieselbe Energie und dieselben Überlappungen ergeben wie ein neu
+    // aufgebautes Modell. Die Änderungen bauen aufeinander auf, Rückschritte und Überlappungen kommen vor.
+    private void checkDelta() {
+        SplittableRandom random = new SplittableRandom(7);
+        HPModel delta = new HPModel(lattice, hpSequence, moves);
+        delta.calculateFitnessScore();
+        byte[] codes = delta.getMoveCodes();
+        char[] chars = new char[codes.length];
+        for (int change = 0; change < 2000; change++) {
+            int changes = change % 4 == 0 ? 1 + random.nextInt(codes.length) : 1 + random.nextInt(Math.min(4, codes.length));
+            for (int c = 0; c < changes; c++) {
+                codes[random.nextInt(codes.length)] = (byte) random.nextInt(lattice.directions());
+            }
+            delta.setMoveCodes(codes);
+            for (int i = 0; i < codes.length; i++) {
+                chars[i] = HPModel.MOVE_CHARS[codes[i]];
+            }
+            HPModel full = new HPModel(lattice, hpSequence, new String(chars));
+            if (delta.calculateEnergy() != full.calculateEnergy() || delta.countOverlaps() != full.countOverlaps()) {
+                throw new IllegalStateException("setMoveCodes() after change " + change + " (" + changes + " moves): energy "
+                        + delta.calculateEnergy() + ", overlaps " + delta.countOverlaps() + ", full evaluation: energy "
+                        + full.calculateEnergy() + ", overlaps " + full.countOverlaps());
+            }
+        }
+    }
+
+    // Examples.SEQxx per Name oder RANDOMn als zufällige Binärsequenz der Länge n
+    static String sequence(String name) throws Exception {
+        if (name.startsWith("RANDOM")) {
+            int length = Integer.parseInt(name.substring("RANDOM".length()));
+            Random random = new Random(length);
+            StringBuilder binary = new StringBuilder();
+            for (int i = 0; i < length; i++) {
+                binary.append(random.nextBoolean() ? '1' : '0');
+            }
+            return binary.toString();
+        }
+        return (String) Examples.class.getField(name).get(null);
+    }
+
+    @Benchmark
+    public HPModel construct() {
+        return new HPModel(lattice, hpSequence, moves);
+    }
+
+    @Benchmark
+    public int calculateEnergy() {
+        model.invalidate();
+        return model.calculateEnergy();
+    }
+
+    @Benchmark
+    public int countOverlaps() {
+        model.invalidate();
+        return model.countOverlaps();
+    }
+
+    @Benchmark
+    public double calculateFitnessScore() {
+        model.invalidate();
+        return model.calculateFitnessScore();
+    }
+
+    // Bewertung über den FitnessCache, die Faltung liegt schon darin (kanonischer Schlüssel + Nachschlagen)
+    @Benchmark
+    public double fitnessCacheHit() {
+        model.invalidate();
+        cache.evaluate(model);
+        return model.calculateFitnessScore();
+    }
+
+    @Benchmark
+    public double cachedFitnessScore() {
+        return model.calculateFitnessScore();
+    }
+
+    // Punktmutation und Rücknahme auf einem bewerteten Modell, Energie und Überlappungen werden
+    // inkrementell nachgeführt. Durch die Rücknahme bleibt die Konformation stabil.
+    @Benchmark
+    public double pointMutationDelta() {
+        int point = random.nextInt(mutatedCodes.length);
+        byte original = mutatedCodes[point];
+        mutatedCodes[point] = alternativeMove(point, original);
+        mutated.setMoveCodes(mutatedCodes);
+        double fitness = mutated.calculateFitnessScore();
+        mutatedCodes[point] = original;
+        mutated.setMoveCodes(mutatedCodes);
+        return fitness + mutated.calculateFitnessScore();
+    }
+
+    // Vergleichsbasis: dieselbe Punktmutation über setMoves() mit vollständiger Neubewertung
+    @Benchmark
+    public double pointMutationFull() {
+        int point = random.nextInt(mutatedMoves.length);
+        char original = mutatedMoves[point];
+        mutatedMoves[point] = HPModel.MOVE_CHARS[alternativeMove(point, lattice.encodeMove(original))];
+        mutated.setMoves(new String(mutatedMoves));
+        double fitness = mutated.calculateFitnessScore();
+        mutatedMoves[point] = original;
+        mutated.setMoves(new String(mutatedMoves));
+        return fitness + mutated.calculateFitnessScore();
+    }
+
+    // Wechsel auf die nächste Achse, ohne in den vorherigen Zug zurückzulaufen
+    private byte alternativeMove(int point, byte move) {
+        int alternative = (move + 2) % lattice.directions();
+        if (point > 0 && alternative == (lattice.encodeMove(mutatedMoves[point - 1]) ^ 1)) {
+            alternative ^= 1;
+        }
+        return (byte) alternative;
+    }
+
+    // Vergleichsbasis: die frühere Zählung über "x,y"-Strings in einer HashMap
+    @Benchmark
+    public int countOverlapsStringKeyed() {
+        Map<String, Integer> positionCount = new HashMap<>();
+        for (int i = 0; i < model.length(); i++) {
+            String position = model.getX(i) + "," + model.getY(i);
+            positionCount.put(position, positionCount.getOrDefault(position, 0) + 1);
+        }
+        int overlaps = 0;
+        for (int count : positionCount.values()) {
+            if (count > 1) {
+                overlaps += (count * (count - 1)) / 2;
+            }
+        }
+        return overlaps;
+    }
+}
@@ -0,0 +1,222 @@
+package hpmodel;
+
+import java.util.Arrays;
+
+// Bewertet viele Individuen einer Population auf einmal. Züge und Koordinaten liegen als Struktur von
+// Arrays in Kacheln: Rest i von Individuum p einer Kachel steht an Index i * capacity + p, für jeden Rest
+// liegen die Individuen also nebeneinander und werden in SIMD-Lanes gemeinsam gerechnet (VectorKernel,
+// ohne jdk.incubator.vector der skalare Kernel). Statt einer Belegungstabelle wird über Paare von Resten
+// gezählt: auf beiden Gittern hat der Manhattan-Abstand zweier Reste die Parität ihres Indexabstands,
+// Überlappungen (Abstand 0) gibt es also nur bei geradem, H-H-Kontakte (Abstand 1) nur bei ungeradem
+// Indexabstand. Welche Paare das sind, hängt nur von der Sequenz ab und ist für alle Lanes gleich.
+// Eine Kachel ist so groß, dass Züge und Koordinaten in einen L2-Cache passen; jeder Worker hat eine.
+final class BatchEvaluator {
+    private static final int TILE_BYTES = 128 * 1024;
+    // Die Paare wachsen quadratisch mit der Länge, HPModel nur linear: mit dem Vector-API-Kernel ist die
+    // Kachel bei 256 Resten noch 2,5-mal so schnell, bei 512 etwa gleich schnell (kubisch schon langsamer)
+    static final int MAX_RESIDUES = 400;
+    static final Kernel KERNEL = kernel();
+
+    // Die Rechenschleifen über eine Kachel, width ist ein Vielfaches von lanes()
+    interface Kernel {
+        int lanes();
+
+        // Koordinaten aus den Zügen, Rest 0 liegt im Ursprung
+        void positions(Tile tile, int width);
+
+        // Überlappungen über alle Paare in overlapPairs, Kontakte über alle Paare in contactPairs
+        // (je zwei Zeilenanfänge i * capacity und j * capacity hintereinander)
+        void score(Tile tile, int width, int[] overlapPairs, int[] contactPairs);
+    }
+
+    // Speicher eines Workers
+    static final class Tile {
+        final int capacity;
+        final int[] codes;  // Zug m von Individuum p an m * capacity + p
+        final int[] xs, ys, zs;
+        final int[] contacts;
+        final int[] overlapCounts;
+        final int[] models; // Index in der Population je Lane
+        final byte[] scratch;
+        final boolean cubic;
+
+        private Tile(int residues, int capacity, boolean cubic) {
+            this.capacity = capacity;
+            this.codes = new int[Math.max(residues - 1, 0) * capacity];
+            this.xs = new int[residues * capacity];
+            this.ys = new int[residues * capacity];
+            this.zs = cubic ? new int[residues * capacity] : null;
+            this.contacts = new int[capacity];
+            this.overlapCounts = new int[capacity];
+            this.models = new int[capacity];
+            this.scratch = new byte[Math.max(residues - 1, 0)];
+            this.cubic = cubic;
+        }
+    }
+
+    private final Kernel kernel;
+    private final int residues;
+    private final Lattice lattice;
+    private final int capacity;
+    private final int[] overlapPairs;
+    private final int[] contactPairs;
+
+    BatchEvaluator(String sequence, Lattice lattice) {
+        this(sequence, lattice, KERNEL);
+    }
+
+    BatchEvaluator(String sequence, Lattice lattice, Kernel kernel) {
+        this.kernel = kernel;
+        this.residues = sequence.length();
+        this.lattice = lattice;
+        int lanes = kernel.lanes();
+        int perIndividual = residues * 4 * Integer.BYTES; // Zug, x, y, z
+        this.capacity = Math.max(lanes, TILE_BYTES / Math.max(perIndividual, 1) / lanes * lanes);
+
+        int overlapCount = 0, contactCount = 0;
+        for (int i = 0; i < residues; i++) {
+            for (int j = i + 2; j < residues; j += 2) {
+                overlapCount++;
+            }
+            for (int j = i + 3; j < residues; j += 2) {
+                if (sequence.charAt(i) == 'H' && sequence.charAt(j) == 'H') {
+                    contactCount++;
+                }
+            }
+        }
+        overlapPairs = new int[2 * overlapCount];
+        contactPairs = new int[2 * contactCount];
+        int o = 0, c = 0;
+        for (int i = 0; i < residues; i++) {
+            for (int j = i + 2; j < residues; j += 2) {
+                overlapPairs[o++] = i * capacity;
+                overlapPairs[o++] = j * capacity;
+            }
+            for (int j = i + 3; j < residues; j += 2) {
+                if (sequence.charAt(i) == 'H' && sequence.charAt(j) == 'H') {
+                    contactPairs[c++] = i * capacity;
+                    contactPairs[c++] = j * capacity;
+                }
+            }
+        }
+    }
+
+    private static Kernel kernel() {
+        // Ohne --add-modules jdk.incubator.vector lässt sich VectorKernel nicht laden
+        if (Boolean.getBoolean("hpmodel.scalar") || ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return new ScalarKernel();
+        }
+        return new VectorKernel();
+    }
+
+    // Der skalare Kernel ist schon bei SEQ64 langsamer als HPModel, er dient nur als Referenz
+    static boolean pays(int residues) {
+        return !(KERNEL instanceof ScalarKernel) && residues <= MAX_RESIDUES;
+    }
+
+    static String kernelName() {
+        return KERNEL instanceof ScalarKernel ? "scalar" : "vector, " + KERNEL.lanes() + " int lanes";
+    }
+
+    Tile newTile() {
+        return new Tile(residues, capacity, lattice == Lattice.CUBIC);
+    }
+
+    // Bewertet alle noch nicht bewerteten Modelle in models[from, to), kachelweise; liefert ihre Anzahl
+    long evaluate(HPModel[] models, int from, int to, Tile tile) {
+        long evaluated = 0;
+        int count = 0;
+        for (int index = from; index < to; index++) {
+            HPModel model = models[index];
+            if (model.isEvaluated()) {
+                continue;
+            }
+            if (model.lattice() != lattice || model.length() != residues) {
+                throw new IllegalArgumentException("Model does not match the batch evaluator");
+            }
+            model.getGenome().decode(tile.scratch);
+            for (int m = 0; m < tile.scratch.length; m++) {
+                tile.codes[m * capacity + count] = tile.scratch[m];
+            }
+            tile.models[count++] = index;
+            if (count == capacity) {
+                evaluateTile(models, tile, count);
+                evaluated += count;
+                count = 0;
+            }
+        }
+        if (count > 0) {
+            evaluateTile(models, tile, count);
+            evaluated += count;
+        }
+        return evaluated;
+    }
+
+    // Die Lanes ab count rechnen mit alten Zügen mit, ihre Ergebnisse werden nicht verwendet
+    private void evaluateTile(HPModel[] models, Tile tile, int count) {
+        int lanes = kernel.lanes();
+        int width = (count + lanes - 1) / lanes * lanes;
+        kernel.positions(tile, width);
+        kernel.score(tile, width, overlapPairs, contactPairs);
+        for (int p = 0; p < count; p++) {
+            models[tile.models[p]].setEvaluation(-tile.contacts[p], tile.overlapCounts[p]);
+        }
+    }
+
+    // Dieselben Schleifen wie VectorKernel mit einer Lane: innen laufen sie über die nebeneinander
+    // liegenden Individuen einer Zeile
+    static final class ScalarKernel implements Kernel {
+        @Override
+        public int lanes() {
+            return 1;
+        }
+
+        @Override
+        public void positions(Tile tile, int width) {
+            int capacity = tile.capacity;
+            int moves = tile.codes.length / capacity;
+            int[] xs = tile.xs, ys = tile.ys, zs = tile.zs, codes = tile.codes;
+            for (int p = 0; p < width; p++) {
+                xs[p] = 0;
+                ys[p] = 0;
+                if (zs != null) {
+                    zs[p] = 0;
+                }
+            }
+            for (int m = 0; m < moves; m++) {
+                int from = m * capacity, to = from + capacity;
+                for (int p = 0; p < width; p++) {
+                    int code = codes[from + p];
+                    xs[to + p] = xs[from + p] + Lattice.DX[code];
+                    ys[to + p] = ys[from + p] + Lattice.DY[code];
+                    if (zs != null) {
+                        zs[to + p] = zs[from + p] + Lattice.DZ[code];
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void score(Tile tile, int width, int[] overlapPairs, int[] contactPairs) {
+            int[] xs = tile.xs, ys = tile.ys, zs = tile.zs;
+            int[] overlaps = tile.overlapCounts, contacts = tile.contacts;
+            Arrays.fill(overlaps, 0, width, 0);
+            Arrays.fill(contacts, 0, width, 0);
+            for (int k = 0; k < overlapPairs.length; k += 2) {
+                int a = overlapPairs[k], b = overlapPairs[k + 1];
+                for (int p = 0; p < width; p++) {
+                    int difference = (xs[a + p] - xs[b + p]) | (ys[a + p] - ys[b + p]) | (zs == null ? 0 : zs[a + p] - zs[b + p]);
+                    overlaps[p] += difference == 0 ? 1 : 0;
+                }
+            }
+            for (int k = 0; k < contactPairs.length; k += 2) {
+                int a = contactPairs[k], b = contactPairs[k + 1];
+                for (int p = 0; p < width; p++) {
+                    int distance = Math.abs(xs[a + p] - xs[b + p]) + Math.abs(ys[a + p] - ys[b + p])
+                            + (zs == null ? 0 : Math.abs(zs[a + p] - zs[b + p]));
+                    contacts[p] += distance == 1 ? 1 : 0;
+                }
+            }
+        }
+    }
+}
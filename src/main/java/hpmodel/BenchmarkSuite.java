@@ -0,0 +1,139 @@
+package hpmodel;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Runs the generational GA on every Examples sequence with several seeds. Runs are independent
+// and single-threaded, as many of them run at once as there are threads. Every run writes its
+// own log and image to suite/<sequence>_seed<seed>/, the summary goes to suite/summary.csv.
+final class BenchmarkSuite {
+    static final String OUTPUT_FOLDER = "suite";
+
+    // Sequence with the lowest energy known for it, SEQ20 to SEQ36 confirmed with --exact
+    private record Benchmark(String name, String sequence, int optimum) {
+    }
+
+    private static final Benchmark[] BENCHMARKS = {
+        new Benchmark("SEQ20", Examples.SEQ20, -9),
+        new Benchmark("SEQ24", Examples.SEQ24, -9),
+        new Benchmark("SEQ25", Examples.SEQ25, -8),
+        new Benchmark("SEQ36", Examples.SEQ36, -14),
+        new Benchmark("SEQ48", Examples.SEQ48, -23),
+        new Benchmark("SEQ50", Examples.SEQ50, -21),
+        new Benchmark("SEQ60", Examples.SEQ60, -36),
+        new Benchmark("SEQ64", Examples.SEQ64, -42)
+    };
+
+    private record Run(Benchmark benchmark, GeneticAlgorithm.RunResult result) {
+    }
+
+    static void run(GeneticAlgorithm.Options options) throws IOException {
+        if (options.lattice != Lattice.SQUARE) {
+            throw new IllegalArgumentException("The benchmark optima are known for the square lattice only");
+        }
+        int seeds = options.suiteSeeds;
+        int parallelRuns = Math.max(1, Math.min(options.threads, BENCHMARKS.length * seeds));
+        System.out.println("Benchmark suite: " + BENCHMARKS.length + " sequences x " + seeds + " seeds from "
+                + options.seed + ", " + parallelRuns + " runs at a time");
+
+        ExecutorService executor = Executors.newFixedThreadPool(parallelRuns);
+        List<Future<Run>> futures = new ArrayList<>();
+        long startTime = System.nanoTime();
+        // Longest sequences first, so the short ones fill the gaps at the end
+        for (int b = BENCHMARKS.length - 1; b >= 0; b--) {
+            Benchmark benchmark = BENCHMARKS[b];
+            for (int k = 0; k < seeds; k++) {
+                GeneticAlgorithm.Options runOptions = options.copy();
+                runOptions.seed = options.seed + k;
+                runOptions.threads = 1;
+                runOptions.targetEnergy = benchmark.optimum();
+                File directory = new File(OUTPUT_FOLDER, benchmark.name() + "_seed" + runOptions.seed);
+                futures.add(executor.submit(() -> {
+                    GeneticAlgorithm.RunResult result = GeneticAlgorithm.runGeneticAlgorithm(
+                            GeneticAlgorithm.convertToHP(benchmark.sequence()), runOptions, directory, false);
+                    System.out.printf(Locale.ROOT, "%s seed %d: energy %d, overlaps %d, %d generations, %.1f s%n",
+                            benchmark.name(), runOptions.seed, result.best().calculateEnergy(), result.best().countOverlaps(),
+                            result.generations(), result.seconds());
+                    return new Run(benchmark, result);
+                }));
+            }
+        }
+
+        List<Run> runs = new ArrayList<>();
+        try {
+            for (Future<Run> future : futures) {
+                try {
+                    runs.add(future.get());
+                } catch (ExecutionException e) {
+                    System.err.println("Error: " + e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for benchmark runs", e);
+        } finally {
+            executor.shutdown();
+        }
+        double seconds = (System.nanoTime() - startTime) / 1e9;
+
+        writeSummary(runs, seeds, seconds);
+    }
+
+    private static void writeSummary(List<Run> runs, int seeds, double seconds) throws IOException {
+        File file = new File(OUTPUT_FOLDER, "summary.csv");
+        file.getParentFile().mkdirs();
+        long totalEvaluations = 0;
+        try (FileWriter writer = new FileWriter(file)) {
+            writer.write("Sequence;Length;Optimum;BestEnergy;MeanEnergy;SuccessRate;MeanTimeToOptimum;EvaluationsPerSecond\n");
+            System.out.println();
+            System.out.println("Sequence  Length  Optimum  Best   Mean    Success  TimeToOpt  Eval/s");
+            for (Benchmark benchmark : BENCHMARKS) {
+                int count = 0, successes = 0, best = 0;
+                double energySum = 0.0, timeToOptimum = 0.0, evaluationsPerSecond = 0.0;
+                for (Run run : runs) {
+                    if (run.benchmark() != benchmark) {
+                        continue;
+                    }
+                    // Only overlap-free folds count
+                    HPModel model = run.result().best();
+                    int energy = model.countOverlaps() == 0 ? model.calculateEnergy() : 0;
+                    count++;
+                    best = Math.min(best, energy);
+                    energySum += energy;
+                    evaluationsPerSecond += run.result().evaluations() / run.result().seconds();
+                    totalEvaluations += run.result().evaluations();
+                    if (run.result().secondsToTarget() >= 0) {
+                        successes++;
+                        timeToOptimum += run.result().secondsToTarget();
+                    }
+                }
+                if (count == 0) {
+                    continue;
+                }
+                double meanEnergy = energySum / count;
+                double successRate = (double) successes / count;
+                double meanTimeToOptimum = successes > 0 ? timeToOptimum / successes : Double.NaN;
+                evaluationsPerSecond /= count;
+
+                writer.write(String.format(Locale.GERMAN, "%s;%d;%d;%d;%.2f;%.2f;%.3f;%.0f\n", benchmark.name(),
+                        benchmark.sequence().length(), benchmark.optimum(), best, meanEnergy, successRate,
+                        meanTimeToOptimum, evaluationsPerSecond));
+                System.out.printf(Locale.ROOT, "%-8s  %6d  %7d  %4d  %6.2f  %3d/%-3d  %9s  %6.0f%n", benchmark.name(),
+                        benchmark.sequence().length(), benchmark.optimum(), best, meanEnergy, successes, count,
+                        successes > 0 ? String.format(Locale.ROOT, "%.3f s", meanTimeToOptimum) : "-",
+                        evaluationsPerSecond);
+            }
+        }
+        System.out.printf(Locale.ROOT, "%nTotal: %d runs with %d seeds in %.1f s, %.0f evaluations per second%n",
+                runs.size(), seeds, seconds, totalEvaluations / seconds);
+        System.out.println("Summary written to " + file.getPath());
+    }
+}
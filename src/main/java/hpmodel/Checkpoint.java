@@ -0,0 +1,252 @@
+package hpmodel;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+// Zustand eines generationellen Laufs am Anfang einer Generation, deren Population schon bewertet ist.
+// Die Genome an den HPModels werden nicht mehr verändert, der Schnappschuss hält also nur Referenzen
+// und die Bewertungen; geschrieben wird er im Hintergrund (CheckpointWriter). SplittableRandom gibt
+// seinen Zustand nicht heraus, deshalb werden die Zufallsgeneratoren beim Checkpoint aus gespeicherten
+// Seeds neu gestartet: ein fortgesetzter Lauf macht genau dort weiter, wo der Checkpoint war.
+//
+// Datei (big endian): "HPCK", Version, Sequenz, Einstellungen, Log-Format und -Intervall,
+// Zielenergie, Abbruchkriterien, Neustartanteil und lokale Suche, Cache, Stapelbewertung und Bilder, Laufzustand, Seeds, bestes Individuum,
+// Population (Genomwörter, Energie, Überlappungen), am Ende CRC32 über alles davor
+record Checkpoint(String sequence, long seed, int workers, GeneticAlgorithm.SelectionMode selection, Lattice lattice,
+                  Genome.Encoding encoding, GeneticAlgorithm.Feasibility feasibility, int checkpointInterval,
+                  MetricsSink.Format logFormat, int logInterval, int targetEnergy, boolean stopAtTarget, int stagnation,
+                  double minDiversity, double timeLimit, double restartFraction, int memeticElites, int memeticSteps,
+                  int cacheSize, boolean batch, FrameRenderer.Format frames, int generation, double mutationRate, double previousBestFitness, int lastImprovement,
+                  long totalEvaluations, long loggedEvaluations, double elapsedSeconds, double secondsToTarget,
+                  long selectionSeed, long[] workerSeeds, Individual best, Individual[] population) {
+
+    static final String FILE = "checkpoint.bin";
+    private static final int MAGIC = 0x4850434B; // "HPCK"
+    private static final int VERSION = 6;
+
+    // Genom und Bewertung eines Individuums
+    record Individual(Genome genome, int energy, int overlaps) {
+        static Individual of(HPModel model) {
+            return new Individual(model.getGenome(), model.calculateEnergy(), model.countOverlaps());
+        }
+
+        HPModel restore(String sequence) {
+            HPModel model = new HPModel(sequence, genome);
+            model.setEvaluation(energy, overlaps);
+            return model;
+        }
+    }
+
+    static Individual[] snapshot(HPModel[] population) {
+        Individual[] individuals = new Individual[population.length];
+        for (int i = 0; i < population.length; i++) {
+            individuals[i] = Individual.of(population[i]);
+        }
+        return individuals;
+    }
+
+    HPModel[] restorePopulation() {
+        HPModel[] models = new HPModel[population.length];
+        for (int i = 0; i < population.length; i++) {
+            models[i] = population[i].restore(sequence);
+        }
+        return models;
+    }
+
+    // Die Einstellungen des Laufs ersetzen die der Kommandozeile
+    GeneticAlgorithm.Options applyTo(GeneticAlgorithm.Options options) {
+        GeneticAlgorithm.Options resumed = options.copy();
+        resumed.seed = seed;
+        resumed.threads = workers;
+        resumed.selection = selection;
+        resumed.lattice = lattice;
+        resumed.encoding = encoding;
+        resumed.feasibility = feasibility;
+        resumed.checkpointInterval = checkpointInterval;
+        resumed.logFormat = logFormat;
+        resumed.logInterval = logInterval;
+        resumed.targetEnergy = targetEnergy;
+        resumed.stopAtTarget = stopAtTarget;
+        resumed.stagnation = stagnation;
+        resumed.minDiversity = minDiversity;
+        resumed.timeLimit = timeLimit;
+        resumed.restartFraction = restartFraction;
+        resumed.memeticElites = memeticElites;
+        resumed.memeticSteps = memeticSteps;
+        resumed.cacheSize = cacheSize;
+        resumed.batch = batch;
+        resumed.frames = frames;
+        if (resumed.remote != null && (cacheSize > 0 || batch)) {
+            throw new IllegalArgumentException("The checkpointed run used the fitness cache or batch evaluation"
+                    + " and cannot be resumed with remote evaluation");
+        }
+        return resumed;
+    }
+
+    // Erst in eine temporäre Datei daneben, dann per rename an ihren Platz: ein Absturz beim Schreiben
+    // lässt den vorherigen Checkpoint stehen
+    void write(Path file) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(size());
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION);
+        byte[] sequenceBytes = sequence.getBytes(StandardCharsets.US_ASCII);
+        buffer.putInt(sequenceBytes.length);
+        buffer.put(sequenceBytes);
+        buffer.putLong(seed);
+        buffer.putInt(workers);
+        buffer.put((byte) selection.ordinal());
+        buffer.put((byte) lattice.ordinal());
+        buffer.put((byte) encoding.ordinal());
+        buffer.put((byte) feasibility.ordinal());
+        buffer.putInt(checkpointInterval);
+        buffer.put((byte) logFormat.ordinal());
+        buffer.putInt(logInterval);
+        buffer.putInt(targetEnergy);
+        buffer.put((byte) (stopAtTarget ? 1 : 0));
+        buffer.putInt(stagnation);
+        buffer.putDouble(minDiversity);
+        buffer.putDouble(timeLimit);
+        buffer.putDouble(restartFraction);
+        buffer.putInt(memeticElites);
+        buffer.putInt(memeticSteps);
+        buffer.putInt(cacheSize);
+        buffer.put((byte) (batch ? 1 : 0));
+        buffer.put((byte) frames.ordinal());
+        buffer.putInt(generation);
+        buffer.putDouble(mutationRate);
+        buffer.putDouble(previousBestFitness);
+        buffer.putInt(lastImprovement);
+        buffer.putLong(totalEvaluations);
+        buffer.putLong(loggedEvaluations);
+        buffer.putDouble(elapsedSeconds);
+        buffer.putDouble(secondsToTarget);
+        buffer.putLong(selectionSeed);
+        for (long workerSeed : workerSeeds) {
+            buffer.putLong(workerSeed);
+        }
+        writeIndividual(buffer, best);
+        buffer.putInt(population.length);
+        for (Individual individual : population) {
+            writeIndividual(buffer, individual);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, buffer.position());
+        buffer.putInt((int) crc.getValue());
+        buffer.flip();
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        try {
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private int size() {
+        int individualBytes = Genome.wordCount(lattice, sequence.length() - 1) * Long.BYTES + 2 * Integer.BYTES;
+        return 3 * Integer.BYTES + sequence.length()                   // Kopf, Sequenz
+                + Long.BYTES + Integer.BYTES + 4 + Integer.BYTES       // Einstellungen
+                + 1 + Integer.BYTES                                    // Log
+                + 2 * Integer.BYTES + 1 + 3 * Long.BYTES               // Ziel, Abbruch und Neustart
+                + 2 * Integer.BYTES                                    // lokale Suche
+                + Integer.BYTES + 2                                    // Cache, Stapel, Bilder
+                + 2 * Integer.BYTES + 6 * Long.BYTES                   // Laufzustand
+                + (1 + workerSeeds.length) * Long.BYTES                // Seeds
+                + (1 + population.length) * individualBytes + Integer.BYTES
+                + Integer.BYTES;                                       // CRC32
+    }
+
+    private static void writeIndividual(ByteBuffer buffer, Individual individual) {
+        individual.genome().writeWords(buffer);
+        buffer.putInt(individual.energy());
+        buffer.putInt(individual.overlaps());
+    }
+
+    static Checkpoint read(Path file) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a checkpoint: " + file);
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported checkpoint version " + version + ": " + file);
+            }
+            CRC32 crc = new CRC32();
+            crc.update(buffer.array(), 0, buffer.limit() - Integer.BYTES);
+            if (buffer.getInt(buffer.limit() - Integer.BYTES) != (int) crc.getValue()) {
+                throw new IOException("Corrupt checkpoint: " + file);
+            }
+
+            byte[] sequenceBytes = new byte[buffer.getInt()];
+            buffer.get(sequenceBytes);
+            String sequence = new String(sequenceBytes, StandardCharsets.US_ASCII);
+            long seed = buffer.getLong();
+            int workers = buffer.getInt();
+            GeneticAlgorithm.SelectionMode selection = GeneticAlgorithm.SelectionMode.values()[buffer.get()];
+            Lattice lattice = Lattice.values()[buffer.get()];
+            Genome.Encoding encoding = Genome.Encoding.values()[buffer.get()];
+            GeneticAlgorithm.Feasibility feasibility = GeneticAlgorithm.Feasibility.values()[buffer.get()];
+            int checkpointInterval = buffer.getInt();
+            MetricsSink.Format logFormat = MetricsSink.Format.values()[buffer.get()];
+            int logInterval = buffer.getInt();
+            int targetEnergy = buffer.getInt();
+            boolean stopAtTarget = buffer.get() != 0;
+            int stagnation = buffer.getInt();
+            double minDiversity = buffer.getDouble();
+            double timeLimit = buffer.getDouble();
+            double restartFraction = buffer.getDouble();
+            int memeticElites = buffer.getInt();
+            int memeticSteps = buffer.getInt();
+            int cacheSize = buffer.getInt();
+            boolean batch = buffer.get() != 0;
+            FrameRenderer.Format frames = FrameRenderer.Format.values()[buffer.get()];
+            int generation = buffer.getInt();
+            double mutationRate = buffer.getDouble();
+            double previousBestFitness = buffer.getDouble();
+            int lastImprovement = buffer.getInt();
+            long totalEvaluations = buffer.getLong();
+            long loggedEvaluations = buffer.getLong();
+            double elapsedSeconds = buffer.getDouble();
+            double secondsToTarget = buffer.getDouble();
+            long selectionSeed = buffer.getLong();
+            long[] workerSeeds = new long[workers];
+            for (int w = 0; w < workers; w++) {
+                workerSeeds[w] = buffer.getLong();
+            }
+            int length = sequence.length() - 1;
+            Individual best = readIndividual(buffer, lattice, encoding, length);
+            Individual[] population = new Individual[buffer.getInt()];
+            for (int i = 0; i < population.length; i++) {
+                population[i] = readIndividual(buffer, lattice, encoding, length);
+            }
+            return new Checkpoint(sequence, seed, workers, selection, lattice, encoding, feasibility, checkpointInterval,
+                    logFormat, logInterval, targetEnergy, stopAtTarget, stagnation, minDiversity, timeLimit, restartFraction,
+                    memeticElites, memeticSteps, cacheSize, batch, frames, generation, mutationRate, previousBestFitness, lastImprovement, totalEvaluations, loggedEvaluations, elapsedSeconds,
+                    secondsToTarget, selectionSeed, workerSeeds, best, population);
+        } catch (BufferUnderflowException | ArrayIndexOutOfBoundsException | NegativeArraySizeException e) {
+            throw new IOException("Truncated checkpoint: " + file, e);
+        }
+    }
+
+    private static Individual readIndividual(ByteBuffer buffer, Lattice lattice, Genome.Encoding encoding, int length) {
+        Genome genome = Genome.readWords(buffer, lattice, encoding, length);
+        return new Individual(genome, buffer.getInt(), buffer.getInt());
+    }
+}
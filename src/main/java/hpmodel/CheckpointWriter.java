@@ -0,0 +1,48 @@
+package hpmodel;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+// Schreibt Checkpoints in einem eigenen Thread, damit die Generationsschleife nicht auf die Platte wartet.
+// Höchstens ein Checkpoint wartet; kommt ein neuerer, bevor der Thread frei ist, ersetzt er den wartenden.
+final class CheckpointWriter implements AutoCloseable {
+    private final Path file;
+    private final ThreadPoolExecutor executor;
+    private volatile IOException failure;
+
+    CheckpointWriter(Path file) {
+        this.file = file;
+        this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1), runnable -> {
+            Thread thread = new Thread(runnable, "checkpoint-writer");
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.DiscardOldestPolicy());
+    }
+
+    void submit(Checkpoint checkpoint) {
+        executor.execute(() -> {
+            try {
+                checkpoint.write(file);
+            } catch (IOException e) {
+                failure = e;
+            }
+        });
+    }
+
+    // Wartet auf den letzten Checkpoint
+    @Override
+    public void close() throws IOException {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
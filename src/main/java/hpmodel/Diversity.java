@@ -0,0 +1,52 @@
+package hpmodel;
+
+import java.util.Arrays;
+
+// Mittlere Hamming-Distanz der absoluten Züge über alle Paare einer Population, aus der Häufigkeit jedes
+// Zugs an jeder Position: haben an Position i c_k Individuen den Zug k, unterscheiden sich dort
+// (n² - Σ c_k²) / 2 der n(n - 1) / 2 Paare. Jedes Individuum wird einmal in die Häufigkeiten
+// eingetragen, das kostet O(n·L) statt O(n²·L) für alle Paare.
+final class Diversity {
+    private final int length;
+    private final int directions;
+    private final int[] counts; // counts[i * directions + Zug]
+    private final byte[] codes;
+    private int size;
+
+    Diversity(int length, Lattice lattice) {
+        this.length = length;
+        this.directions = lattice.directions();
+        this.counts = new int[length * directions];
+        this.codes = new byte[length];
+    }
+
+    void add(HPModel model) {
+        model.getGenome().decode(codes);
+        for (int i = 0; i < length; i++) {
+            counts[i * directions + codes[i]]++;
+        }
+        size++;
+    }
+
+    void clear() {
+        Arrays.fill(counts, 0);
+        size = 0;
+    }
+
+    // Anteil der Positionen, an denen sich zwei Individuen im Mittel unterscheiden: 0 = alle gleich
+    double meanHammingDistance() {
+        if (size < 2 || length == 0) {
+            return 0.0;
+        }
+        long differing = 0;
+        long n2 = (long) size * size;
+        for (int i = 0; i < length; i++) {
+            long same = 0;
+            for (int k = i * directions, end = k + directions; k < end; k++) {
+                same += (long) counts[k] * counts[k];
+            }
+            differing += n2 - same;
+        }
+        return (double) differing / ((double) size * (size - 1) * length);
+    }
+}
@@ -0,0 +1,126 @@
+package hpmodel;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+// Gegenstück zu RemoteEvaluator: nimmt Verbindungen von GA-Läufen an und bewertet deren Stapel mit
+// HPModel, jede Verbindung in einem eigenen Thread. Läuft, bis der Prozess beendet wird. Mehrere
+// Worker-Prozesse, auch auf anderen Rechnern, teilen sich die Bewertung eines Laufs.
+final class EvaluationWorker {
+    private static final int MAX_RESIDUES = 1 << 16;
+    private static final int MAX_BATCH = 1 << 20;
+
+    private EvaluationWorker() {
+    }
+
+    static void serve(String address) throws IOException {
+        SocketAddress socketAddress = RemoteEvaluator.parseAddress(address);
+        boolean unix = socketAddress instanceof UnixDomainSocketAddress;
+        if (unix) {
+            // Ein Socket eines früheren Workers bleibt als Datei liegen
+            Files.deleteIfExists(((UnixDomainSocketAddress) socketAddress).getPath());
+        }
+        try (ServerSocketChannel server = ServerSocketChannel.open(unix ? StandardProtocolFamily.UNIX : StandardProtocolFamily.INET)) {
+            server.bind(socketAddress);
+            System.out.println("Evaluation worker listening on " + server.getLocalAddress());
+            while (true) {
+                SocketChannel channel = server.accept();
+                Thread thread = new Thread(() -> handle(channel), "evaluation-" + channel.hashCode());
+                thread.setDaemon(true);
+                thread.start();
+            }
+        } finally {
+            if (unix) {
+                Files.deleteIfExists(((UnixDomainSocketAddress) socketAddress).getPath());
+            }
+        }
+    }
+
+    private static void handle(SocketChannel channel) {
+        try (channel) {
+            if (channel.getLocalAddress() instanceof InetSocketAddress) {
+                channel.socket().setTcpNoDelay(true);
+            }
+            ByteBuffer header = ByteBuffer.allocate(2 * Integer.BYTES + 2 + Integer.BYTES);
+            RemoteEvaluator.readFully(channel, header);
+            header.flip();
+            if (header.getInt() != RemoteEvaluator.MAGIC || header.getInt() != RemoteEvaluator.VERSION) {
+                throw new IOException("Unexpected header from " + channel.getRemoteAddress());
+            }
+            Lattice lattice = Lattice.values()[header.get()];
+            Genome.Encoding encoding = Genome.Encoding.values()[header.get()];
+            // Alle Größen kommen vom Gegenüber und werden vor dem Anlegen der Puffer geprüft
+            int residues = header.getInt();
+            if (residues < 2 || residues > MAX_RESIDUES) {
+                throw new IOException("Sequence length " + residues + " out of range from " + channel.getRemoteAddress());
+            }
+            ByteBuffer sequenceBytes = ByteBuffer.allocate(residues + Integer.BYTES);
+            RemoteEvaluator.readFully(channel, sequenceBytes);
+            String sequence = new String(sequenceBytes.array(), 0, residues, StandardCharsets.US_ASCII);
+            int maxBatch = sequenceBytes.getInt(residues);
+            if (maxBatch <= 0 || maxBatch > MAX_BATCH) {
+                throw new IOException("Batch limit " + maxBatch + " out of range from " + channel.getRemoteAddress());
+            }
+            int length = residues - 1;
+            int genomeBytes = Genome.wordCount(lattice, length) * Long.BYTES;
+
+            ByteBuffer reply = ByteBuffer.allocate(2 * Integer.BYTES);
+            reply.putInt(RemoteEvaluator.MAGIC).putInt(RemoteEvaluator.VERSION).flip();
+            RemoteEvaluator.writeFully(channel, reply);
+
+            // Ein Modell je Verbindung, wie in LocalSearch: nach dem ersten Genom rechnet setMoveCodes()
+            // nur die Züge nach, in denen sich das nächste Genom vom vorigen unterscheidet
+            Genome genome = new Genome(lattice, encoding, length);
+            HPModel model = new HPModel(sequence, new Genome(lattice, encoding, length));
+            byte[] codes = new byte[length];
+            ByteBuffer count = ByteBuffer.allocate(Integer.BYTES);
+            ByteBuffer request = ByteBuffer.allocate(4096);
+            ByteBuffer response = ByteBuffer.allocate(4096);
+            while (true) {
+                count.clear();
+                try {
+                    RemoteEvaluator.readFully(channel, count);
+                } catch (EOFException e) {
+                    return; // Lauf beendet
+                }
+                int models = count.flip().getInt();
+                if (models <= 0 || models > maxBatch) {
+                    throw new IOException("Batch of " + models + " models out of range 1.." + maxBatch
+                            + " from " + channel.getRemoteAddress());
+                }
+                int requestBytes = Math.multiplyExact(models, genomeBytes);
+                int responseBytes = Math.multiplyExact(models, 2 * Integer.BYTES);
+                if (request.capacity() < requestBytes) {
+                    request = ByteBuffer.allocate(requestBytes);
+                }
+                if (response.capacity() < responseBytes) {
+                    response = ByteBuffer.allocate(responseBytes);
+                }
+                request.clear().limit(requestBytes);
+                RemoteEvaluator.readFully(channel, request);
+                request.flip();
+                response.clear();
+                for (int i = 0; i < models; i++) {
+                    genome.overwriteWords(request);
+                    genome.decode(codes);
+                    model.setMoveCodes(codes);
+                    response.putInt(model.calculateEnergy());
+                    response.putInt(model.countOverlaps());
+                }
+                response.flip();
+                RemoteEvaluator.writeFully(channel, response);
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Evaluation worker: " + e);
+        }
+    }
+}
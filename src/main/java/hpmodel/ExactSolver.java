@@ -0,0 +1,296 @@
+package hpmodel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Exakter Löser: Branch and Bound über alle selbstvermeidenden Wege einer Sequenz, Energie wie in
+// HPModel (−1 je H-H-Paar, das nicht in der Kette benachbart ist und auf benachbarten Gitterpunkten
+// liegt). Symmetrien werden gebrochen, indem eine Achse beim ersten Zug auf ihr in positiver Richtung
+// und in der Reihenfolge x, y, z betreten werden muss: der erste Zug ist R, der erste Zug abseits der
+// x-Achse U, der erste entlang z F. Damit wird jede Faltung bis auf Drehungen und Spiegelungen genau
+// einmal besucht.
+//
+// Schranke für die noch möglichen Kontakte, sobald die Reste 0 bis k - 1 liegen:
+//  - jeder Kontakt wird beim späteren Rest j gezählt, der dann höchstens directions - 2 neue Kontakte
+//    haben kann (ein Nachbar ist j - 1, einer bleibt für j + 1 frei), beim letzten Rest directions - 1,
+//    und nie mehr, als es H-Reste ungerader Indexdifferenz vor j - 1 gibt;
+//  - beide Gitter sind bipartit, jeder Kontakt verbindet einen geraden mit einem ungeraden Rest und
+//    verbraucht auf beiden Seiten einen freien Nachbarplatz: es gibt höchstens so viele weitere
+//    Kontakte, wie die H-Reste einer Parität zusammen noch Plätze frei haben.
+//
+// Bis SPLIT_DEPTH Züge wird jeder Präfix als eigene Aufgabe im ForkJoinPool verteilt (Work Stealing),
+// darunter sucht jeder Thread sequenziell auf seinem eigenen Gitter. Die beste Kontaktzahl ist für alle
+// Aufgaben sichtbar, eine Verbesserung in einem Teilbaum schneidet sofort auch in den anderen ab.
+// Die Energie ist exakt; welche von mehreren optimalen Faltungen herauskommt, hängt von der
+// Reihenfolge der Threads ab.
+final class ExactSolver {
+    private static final int SPLIT_DEPTH = 8;
+    // Längste Sequenzen, die noch in Minuten fertig werden (SEQ36 quadratisch ein paar Sekunden, SEQ20
+    // kubisch knapp eine Minute); der Aufwand wächst exponentiell, darüber wird abgelehnt
+    static final int MAX_SQUARE_RESIDUES = 40;
+    static final int MAX_CUBIC_RESIDUES = 20;
+
+    // Optimale Faltung, nodes = besuchte Suchknoten
+    record Result(HPModel best, long nodes, double seconds) {
+    }
+
+    private final Lattice lattice;
+    private final int residues;
+    private final boolean[] hydrophobic;
+    private final int[] capacity;   // freie Nachbarplätze eines Rests außerhalb der Kette
+    private final int[] laterBound; // Summe der Kontakte, die die Reste ab k bei ihrer Platzierung haben können
+    private final int[][] parityCapacity; // [Parität][k]: Summe von capacity der H-Reste ab k
+    private final int width;
+    private final int[] steps; // Indexabstand benachbarter Gitterpunkte je Zugcode
+
+    private final AtomicInteger bestContacts = new AtomicInteger();
+    private final LongAdder nodes = new LongAdder();
+    private final ThreadLocal<Search> searches;
+    private byte[] bestMoves;
+
+    private ExactSolver(String sequence, Lattice lattice) {
+        this.lattice = lattice;
+        this.residues = sequence.length();
+        int directions = lattice.directions();
+        hydrophobic = new boolean[residues];
+        capacity = new int[residues];
+        for (int i = 0; i < residues; i++) {
+            hydrophobic[i] = sequence.charAt(i) == 'H';
+            capacity[i] = i == 0 || i == residues - 1 ? directions - 1 : directions - 2;
+        }
+
+        int[] atPlacement = new int[residues];
+        int[] hydrophobicBefore = new int[2]; // H-Reste je Parität mit Index <= j - 3
+        for (int j = 1; j < residues; j++) {
+            if (j >= 3 && hydrophobic[j - 3]) {
+                hydrophobicBefore[(j - 3) & 1]++;
+            }
+            if (hydrophobic[j]) {
+                atPlacement[j] = Math.min(j == residues - 1 ? directions - 1 : directions - 2, hydrophobicBefore[(j + 1) & 1]);
+            }
+        }
+        laterBound = new int[residues + 1];
+        parityCapacity = new int[2][residues + 1];
+        for (int j = residues - 1; j >= 0; j--) {
+            laterBound[j] = laterBound[j + 1] + atPlacement[j];
+            parityCapacity[0][j] = parityCapacity[0][j + 1];
+            parityCapacity[1][j] = parityCapacity[1][j + 1];
+            if (hydrophobic[j]) {
+                parityCapacity[j & 1][j] += capacity[j];
+            }
+        }
+
+        // Mit dem ersten Zug R bleibt die Kette in einem Würfel der Kantenlänge 2 * residues + 1 um den
+        // Ursprung, eine Zelle Rand mehr erspart die Bereichsprüfung der Nachbarn
+        width = 2 * residues + 3;
+        steps = new int[directions];
+        for (int code = 0; code < directions; code++) {
+            steps[code] = Lattice.DX[code] + Lattice.DY[code] * width + Lattice.DZ[code] * width * width;
+        }
+        searches = ThreadLocal.withInitial(Search::new);
+        bestMoves = new byte[Math.max(residues - 1, 0)];
+    }
+
+    static Result solve(String sequence, Lattice lattice, int threads) {
+        int limit = lattice == Lattice.CUBIC ? MAX_CUBIC_RESIDUES : MAX_SQUARE_RESIDUES;
+        if (sequence.length() > limit) {
+            throw new IllegalArgumentException("Exact solving is limited to " + limit + " residues on the "
+                    + lattice.name().toLowerCase(Locale.ROOT) + " lattice, the sequence has " + sequence.length());
+        }
+        long start = System.nanoTime();
+        ExactSolver solver = new ExactSolver(sequence, lattice);
+        if (solver.residues > 1) {
+            ForkJoinPool pool = new ForkJoinPool(Math.max(1, threads));
+            try {
+                pool.invoke(solver.new Branch(new byte[0]));
+            } finally {
+                pool.shutdown();
+            }
+        }
+        HPModel best = new HPModel(lattice, sequence, solver.moves());
+        if (best.calculateEnergy() != -solver.bestContacts.get() || best.countOverlaps() != 0) {
+            throw new IllegalStateException("Exact solver and HPModel disagree on " + best.getMoves());
+        }
+        return new Result(best, solver.nodes.sum(), (System.nanoTime() - start) / 1e9);
+    }
+
+    private synchronized String moves() {
+        StringBuilder moves = new StringBuilder(bestMoves.length);
+        for (byte code : bestMoves) {
+            moves.append(Lattice.MOVE_CHARS[code]);
+        }
+        return moves.toString();
+    }
+
+    // Eine gefundene Faltung mit mehr Kontakten übernehmen, falls kein anderer Thread schneller war
+    private synchronized void offer(byte[] moves, int contacts) {
+        if (contacts > bestContacts.get()) {
+            bestMoves = moves.clone();
+            bestContacts.set(contacts);
+        }
+    }
+
+    // Teilbaum unter einem Präfix von Zügen
+    private final class Branch extends RecursiveAction {
+        private final byte[] prefix;
+
+        Branch(byte[] prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        protected void compute() {
+            Search search = searches.get();
+            for (byte move : prefix) {
+                search.place(move);
+            }
+            if (prefix.length < SPLIT_DEPTH && prefix.length < residues - 1) {
+                List<Branch> children = new ArrayList<>(lattice.directions());
+                for (int code = 0; code < lattice.directions(); code++) {
+                    if (search.place(code)) {
+                        if (!search.pruned()) {
+                            byte[] child = new byte[prefix.length + 1];
+                            System.arraycopy(prefix, 0, child, 0, prefix.length);
+                            child[prefix.length] = (byte) code;
+                            children.add(new Branch(child));
+                        }
+                        search.remove();
+                    }
+                }
+                search.clear();
+                invokeAll(children);
+            } else {
+                search.run();
+                search.clear();
+            }
+        }
+    }
+
+    // Zustand einer sequenziellen Suche, einer pro Thread
+    private final class Search {
+        private final int[] grid = new int[lattice == Lattice.CUBIC ? width * width * width : width * width]; // Rest + 1, 0 = frei
+        private final int[] cells = new int[residues];
+        private final byte[] moves = new byte[Math.max(residues - 1, 0)];
+        private final int[] contactsAt = new int[residues]; // Kontakte des Rests bei seiner Platzierung
+        private final int[] axesAt = new int[residues];     // bis Rest k betretene Achsen
+        private final int[] freeCapacity = new int[residues]; // noch freie Plätze eines H-Rests
+        private final int[] placedCapacity = new int[2]; // Summe von freeCapacity der gelegten H-Reste je Parität
+        private int placed;
+        private int contacts;
+        private long visited;
+
+        Search() {
+            int origin = residues + 1;
+            cells[0] = origin + origin * width + (lattice == Lattice.CUBIC ? origin * width * width : 0);
+            clear();
+        }
+
+        // Zurück auf Rest 0 im Ursprung
+        void clear() {
+            while (placed > 1) {
+                remove();
+            }
+            if (placed == 0) {
+                grid[cells[0]] = 1;
+                axesAt[0] = 0;
+                placed = 1;
+                if (hydrophobic[0]) {
+                    freeCapacity[0] = capacity[0];
+                    placedCapacity[0] += capacity[0];
+                }
+            }
+        }
+
+        // Legt den nächsten Rest mit diesem Zug, false bei Kollision oder Symmetrieverstoß
+        boolean place(int code) {
+            int axes = axesAt[placed - 1];
+            int axis = code >> 1;
+            if (axis > axes || (axis == axes && (code & 1) != 0)) {
+                return false;
+            }
+            int cell = cells[placed - 1] + steps[code];
+            if (grid[cell] != 0) {
+                return false;
+            }
+            int j = placed;
+            int found = 0;
+            if (hydrophobic[j]) {
+                for (int step : steps) {
+                    int other = grid[cell + step] - 1;
+                    if (other >= 0 && other < j - 1 && hydrophobic[other]) {
+                        found++;
+                        freeCapacity[other]--;
+                        placedCapacity[other & 1]--;
+                    }
+                }
+                freeCapacity[j] = capacity[j] - found;
+                placedCapacity[j & 1] += freeCapacity[j];
+            }
+            grid[cell] = j + 1;
+            cells[j] = cell;
+            moves[j - 1] = (byte) code;
+            contactsAt[j] = found;
+            axesAt[j] = axis == axes ? axes + 1 : axes;
+            contacts += found;
+            placed++;
+            return true;
+        }
+
+        void remove() {
+            int j = --placed;
+            int cell = cells[j];
+            grid[cell] = 0;
+            contacts -= contactsAt[j];
+            if (hydrophobic[j]) {
+                placedCapacity[j & 1] -= freeCapacity[j];
+                if (contactsAt[j] > 0) {
+                    for (int step : steps) {
+                        int other = grid[cell + step] - 1;
+                        if (other >= 0 && other < j - 1 && hydrophobic[other]) {
+                            freeCapacity[other]++;
+                            placedCapacity[other & 1]++;
+                        }
+                    }
+                }
+            }
+        }
+
+        // Auch mit allen noch möglichen Kontakten nicht besser als die beste bekannte Faltung
+        boolean pruned() {
+            int bound = Math.min(laterBound[placed], Math.min(parityCapacity[0][placed] + placedCapacity[0],
+                    parityCapacity[1][placed] + placedCapacity[1]));
+            return contacts + bound <= bestContacts.get();
+        }
+
+        // Tiefensuche unter dem aktuellen Präfix
+        void run() {
+            visited = 0;
+            search();
+            nodes.add(visited);
+        }
+
+        private void search() {
+            visited++;
+            if (placed == residues) {
+                if (contacts > bestContacts.get()) {
+                    offer(moves, contacts);
+                }
+                return;
+            }
+            if (pruned()) {
+                return;
+            }
+            for (int code = 0; code < steps.length; code++) {
+                if (place(code)) {
+                    search();
+                    remove();
+                }
+            }
+        }
+    }
+}
@@ -1,3 +1,5 @@
+package hpmodel;
+
 // benchmark sequences for the 2d HP model
 // 0 = hydrophil, "white"
 // 1 = hydrophob, "black"
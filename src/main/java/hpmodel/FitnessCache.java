@@ -0,0 +1,119 @@
+package hpmodel;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+// Begrenzter Cache für Bewertungen, damit doppelte Faltungen in der Population nicht neu gerechnet
+// werden. Schlüssel ist die kanonische Faltung: Drehungen und Spiegelungen haben dieselbe Energie
+// und dieselben Überlappungen. Auf beiden Gittern sind das genau die Vertauschungen und Spiegelungen
+// der Achsen, deshalb bekommen die Achsen in der Reihenfolge ihres ersten Auftretens die Achsen x, y, z,
+// jeweils so gespiegelt, dass der erste Zug entlang der Achse positiv ist (2D: erst R, dann U). Der Cache ist in Segmente
+// mit eigener Sperre aufgeteilt, jedes Segment verdrängt den am längsten nicht benutzten Eintrag (LRU).
+final class FitnessCache {
+    private static final int SEGMENT_BITS = 4;
+    private static final int SEGMENTS = 1 << SEGMENT_BITS;
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    FitnessCache(int capacity) {
+        if (capacity < SEGMENTS) {
+            throw new IllegalArgumentException("Cache capacity must be at least " + SEGMENTS + ": " + capacity);
+        }
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(capacity / SEGMENTS);
+        }
+    }
+
+    // Bewertet das Modell, aus dem Cache oder neu gerechnet; true wenn tatsächlich gerechnet wurde
+    boolean evaluate(HPModel model) {
+        if (model.isEvaluated()) {
+            return false;
+        }
+        Genome key = canonicalKey(model.getMoveCodes(), model.lattice());
+        Segment segment = segments[segmentIndex(key.hashCode())];
+        Long cached;
+        synchronized (segment) {
+            cached = segment.get(key);
+        }
+        if (cached != null) {
+            hits.increment();
+            model.setEvaluation((int) (cached >> 32), (int) (long) cached);
+            return false;
+        }
+        misses.increment();
+        model.calculateFitnessScore();
+        Long value = ((long) model.calculateEnergy() << 32) | (model.countOverlaps() & 0xFFFFFFFFL);
+        synchronized (segment) {
+            segment.put(key, value);
+        }
+        return true;
+    }
+
+    // Zugfolge der kanonischen Drehung/Spiegelung als absolutes Genom; moveCodes wird dabei überschrieben
+    static Genome canonicalKey(byte[] moveCodes, Lattice lattice) {
+        // Achse eines Zugs = Code >> 1, Richtung = Code & 1
+        int[] axes = {-1, -1, -1};
+        int[] signs = new int[3];
+        int nextAxis = 0;
+        for (int i = 0; i < moveCodes.length; i++) {
+            int axis = moveCodes[i] >> 1;
+            int sign = moveCodes[i] & 1;
+            if (axes[axis] < 0) {
+                axes[axis] = nextAxis++;
+                signs[axis] = sign;
+            }
+            moveCodes[i] = (byte) ((axes[axis] << 1) | (sign ^ signs[axis]));
+        }
+        return Genome.fromMoveCodes(moveCodes, lattice);
+    }
+
+    // Die oberen Bits eines gemischten Hashwerts, die unteren braucht die LinkedHashMap im Segment selbst
+    private static int segmentIndex(int hash) {
+        return (hash * 0x9E3779B9) >>> (Integer.SIZE - SEGMENT_BITS);
+    }
+
+    long hits() {
+        return hits.sum();
+    }
+
+    long lookups() {
+        return hits.sum() + misses.sum();
+    }
+
+    long evictions() {
+        return evictions.sum();
+    }
+
+    int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    // LinkedHashMap in Zugriffsreihenfolge, nur unter der Sperre des Segments benutzen
+    private final class Segment extends LinkedHashMap<Genome, Long> {
+        private final int capacity;
+
+        Segment(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Genome, Long> eldest) {
+            if (size() > capacity) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package hpmodel;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Locale;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.Semaphore;
+
+// Langlaufender Dienst, der Sequenzen aus einem Strom faltet: von stdin, aus einer Datei (--serve) oder
+// über Verbindungen auf einer Socket-Adresse (--listen, dieselben Adressen wie bei --worker). Jede Zeile
+// ist eine Sequenz (Examples-Name, 0/1 oder H/P), optional mit einer Kennung davor; leere Zeilen und
+// Zeilen mit # werden übersprungen. Für jede Zeile läuft der generationelle GA einmal, single-threaded
+// und ohne Log oder Bild, das Ergebnis geht als JSON-Zeile zurück, in der Reihenfolge, in der die Läufe
+// fertig werden (index ist die Nummer der Zeile im Strom).
+//
+// Alle Ströme teilen sich options.threads Läufer. Es werden höchstens doppelt so viele Sequenzen
+// angenommen, wie Läufer da sind; danach liest der Dienst nicht weiter, bis ein Lauf fertig ist, und
+// der Absender staut sich im Puffer der Pipe oder des Sockets. Die Läufer schreiben nie selbst: jeder
+// Strom hat einen Schreibthread mit Warteschlange, ein Empfänger, der seine Ergebnisse nicht abholt,
+// hält also nur den eigenen Strom auf: hat ein Strom doppelt so viele Zeilen angenommen, wie Läufer da
+// sind, und deren Ergebnisse noch nicht geschrieben, liest er keine weiteren. Da der Prozess zwischen
+// den Läufen weiterlebt, sind die Bewertung und die Zucht nach den ersten Sequenzen schon vom JIT übersetzt.
+final class FoldingService {
+    private static final String END = new String("end"); // Ende eines Stroms für seinen Schreibthread, nur per ==
+    private final GeneticAlgorithm.Options options;
+    private final ExecutorService runners;
+    private final Semaphore slots;
+    private final int backlog; // Ergebnisse, die je Strom auf das Schreiben warten dürfen
+
+    private FoldingService(GeneticAlgorithm.Options options) {
+        int threads = Math.max(1, options.threads);
+        this.options = options;
+        this.runners = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "folding-" + runnable.hashCode());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.slots = new Semaphore(2 * threads);
+        this.backlog = 2 * threads;
+    }
+
+    // "-" liest stdin, sonst die Datei; endet, wenn alle Sequenzen gefaltet sind
+    static void serve(GeneticAlgorithm.Options options, String input) throws IOException {
+        FoldingService service = new FoldingService(options);
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+        try (Reader reader = input.equals("-")
+                ? new InputStreamReader(System.in, StandardCharsets.UTF_8) : new FileReader(input, StandardCharsets.UTF_8)) {
+            service.stream(new BufferedReader(reader), out);
+        } finally {
+            service.runners.shutdown();
+        }
+    }
+
+    // Nimmt Verbindungen an, bis der Prozess beendet wird; jede liefert Zeilen und bekommt ihre Ergebnisse
+    static void listen(GeneticAlgorithm.Options options, String address) throws IOException {
+        FoldingService service = new FoldingService(options);
+        SocketAddress socketAddress = RemoteEvaluator.parseAddress(address);
+        boolean unix = socketAddress instanceof UnixDomainSocketAddress;
+        if (unix) {
+            Files.deleteIfExists(((UnixDomainSocketAddress) socketAddress).getPath());
+        }
+        try (ServerSocketChannel server = ServerSocketChannel.open(unix ? StandardProtocolFamily.UNIX : StandardProtocolFamily.INET)) {
+            server.bind(socketAddress);
+            System.err.println("Folding service listening on " + server.getLocalAddress());
+            while (true) {
+                SocketChannel channel = server.accept();
+                Thread thread = new Thread(() -> {
+                    try (channel) {
+                        service.stream(new BufferedReader(Channels.newReader(channel, StandardCharsets.UTF_8)),
+                                Channels.newWriter(channel, StandardCharsets.UTF_8));
+                    } catch (IOException e) {
+                        System.err.println("Folding service: " + e);
+                    }
+                }, "folding-connection-" + channel.hashCode());
+                thread.setDaemon(true);
+                thread.start();
+            }
+        } finally {
+            service.runners.shutdown();
+            if (unix) {
+                Files.deleteIfExists(((UnixDomainSocketAddress) socketAddress).getPath());
+            }
+        }
+    }
+
+    // Liest bis zum Ende des Stroms und wartet dann, bis dessen letzte Ergebnisse geschrieben sind
+    private void stream(BufferedReader in, Writer out) throws IOException {
+        Phaser pending = new Phaser(1);
+        Semaphore unwritten = new Semaphore(backlog);
+        BlockingQueue<String> results = new LinkedBlockingQueue<>();
+        Thread writer = new Thread(() -> drain(results, out, unwritten, pending), "folding-writer-" + out.hashCode());
+        writer.setDaemon(true);
+        writer.start();
+        long index = 0;
+        try {
+            String line;
+            while ((line = in.readLine()) != null) {
+                line = line.strip();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                // Erst ein Platz für das Ergebnis dieses Stroms, dann ein Läufer
+                unwritten.acquireUninterruptibly();
+                slots.acquireUninterruptibly();
+                pending.register();
+                long lineIndex = index++;
+                String input = line;
+                long received = System.nanoTime();
+                runners.execute(() -> {
+                    String json = null;
+                    try {
+                        json = fold(lineIndex, input, received);
+                    } finally {
+                        // Jede angenommene Zeile gibt genau eine Ergebniszeile, sonst wartet der Strom ewig
+                        results.add(json != null ? json : "{\"index\":" + lineIndex + ",\"error\":\"internal error\"}");
+                        slots.release();
+                    }
+                });
+            }
+        } finally {
+            pending.arriveAndAwaitAdvance();
+            results.add(END);
+        }
+    }
+
+    private String fold(long index, String line, long received) {
+        String[] fields = line.split("\\s+");
+        String id = fields.length > 1 ? fields[0] : null;
+        StringBuilder json = new StringBuilder(256).append("{\"index\":").append(index);
+        if (id != null) {
+            json.append(",\"id\":").append(quote(id));
+        }
+        try {
+            if (fields.length > 2) {
+                throw new IllegalArgumentException("Expected [id] sequence: " + line);
+            }
+            String sequence = GeneticAlgorithm.resolveSequence(fields[fields.length - 1]);
+            if (sequence.length() < 2) {
+                throw new IllegalArgumentException("Sequence too short: " + sequence);
+            }
+            GeneticAlgorithm.Options runOptions = options.copy();
+            runOptions.seed = options.seed + index; // dieselbe Zeile im Strom gibt denselben Lauf
+            runOptions.threads = 1;
+            GeneticAlgorithm.RunResult result = GeneticAlgorithm.runGeneticAlgorithm(sequence, runOptions, null, false);
+            HPModel best = result.best();
+            json.append(",\"sequence\":").append(quote(sequence))
+                    .append(",\"seed\":").append(runOptions.seed)
+                    .append(",\"moves\":").append(quote(best.getMoves()))
+                    .append(",\"energy\":").append(best.calculateEnergy())
+                    .append(",\"overlaps\":").append(best.countOverlaps())
+                    .append(",\"fitness\":").append(best.calculateFitnessScore())
+                    .append(",\"generations\":").append(result.generations())
+                    .append(",\"evaluations\":").append(result.evaluations())
+                    .append(",\"seconds\":").append(String.format(Locale.ROOT, "%.4f", result.seconds()));
+            if (result.secondsToTarget() >= 0) {
+                json.append(",\"secondsToTarget\":").append(String.format(Locale.ROOT, "%.4f", result.secondsToTarget()));
+            }
+        } catch (IOException | RuntimeException e) {
+            json.append(",\"error\":").append(quote(e.getMessage() != null ? e.getMessage() : e.toString()));
+        } catch (StackOverflowError | AssertionError e) {
+            // Ein einzelner Lauf, der so scheitert, soll den Dienst nicht aufhalten
+            json.append(",\"error\":").append(quote(e.toString()));
+        }
+        // Vom Einlesen der Zeile bis hier, mit der Wartezeit auf einen freien Läufer
+        json.append(",\"latency\":").append(String.format(Locale.ROOT, "%.4f", (System.nanoTime() - received) / 1e9));
+        return json.append('}').toString();
+    }
+
+    // Schreibthread eines Stroms, bis END kommt. Ist der Empfänger weg, werden die übrigen Ergebnisse
+    // verworfen, damit der Strom trotzdem zu Ende kommt
+    private static void drain(BlockingQueue<String> results, Writer out, Semaphore unwritten, Phaser pending) {
+        boolean failed = false;
+        while (true) {
+            String json;
+            try {
+                json = results.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (json == END) {
+                return;
+            }
+            if (!failed) {
+                try {
+                    out.write(json);
+                    out.write('\n');
+                    out.flush();
+                } catch (IOException e) {
+                    System.err.println("Folding service: " + e);
+                    failed = true;
+                }
+            }
+            unwritten.release();
+            pending.arriveAndDeregister();
+        }
+    }
+
+    private static String quote(String text) {
+        StringBuilder quoted = new StringBuilder(text.length() + 2).append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"' || c == '\\') {
+                quoted.append('\\').append(c);
+            } else if (c < 0x20) {
+                quoted.append(String.format(Locale.ROOT, "\\u%04x", (int) c));
+            } else {
+                quoted.append(c);
+            }
+        }
+        return quoted.append('"').toString();
+    }
+}
@@ -0,0 +1,153 @@
+package hpmodel;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageOutputStream;
+
+// Zeichnet die beste Faltung jeder Generation, in der sie sich verbessert hat, als Einzelbild in einem
+// eigenen Thread: PNG-Dateien unter ga_frames/ oder ein fortlaufend geschriebenes GIF ga_frames.gif.
+// Die Generationsschleife übergibt nur einen Schnappschuss (Genom und Bewertung) und wartet nie auf
+// das Zeichnen oder auf ImageIO. Warten schon QUEUE_CAPACITY Bilder, wird das neue verworfen und gezählt.
+final class FrameRenderer implements AutoCloseable {
+    static final String FOLDER = "ga_frames";
+    private static final int QUEUE_CAPACITY = 8;
+    private static final int GIF_DELAY = 20; // Hundertstelsekunden pro Bild
+
+    enum Format {
+        NONE,
+        PNG,
+        GIF
+    }
+
+    private final String sequence;
+    private final Format format;
+    private final File directory;
+    private final ThreadPoolExecutor executor;
+    private final LongAdder dropped = new LongAdder();
+    private volatile IOException failure;
+    private long rendered;          // nur im Zeichenthread
+    private ImageWriter gifWriter;  // nur im Zeichenthread
+    private ImageOutputStream gifStream;
+
+    FrameRenderer(String sequence, Format format, File outputDirectory) {
+        this.sequence = sequence;
+        this.format = format;
+        this.directory = format == Format.PNG ? new File(outputDirectory, FOLDER) : outputDirectory;
+        this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY), runnable -> {
+                    Thread thread = new Thread(runnable, "frame-renderer");
+                    thread.setDaemon(true);
+                    return thread;
+                }, (runnable, executor) -> dropped.increment());
+    }
+
+    void submit(HPModel best, int generation) {
+        Checkpoint.Individual snapshot = Checkpoint.Individual.of(best);
+        executor.execute(() -> {
+            if (failure != null) {
+                return;
+            }
+            try {
+                write(GeneticAlgorithm.renderImage(snapshot.restore(sequence), generation), generation);
+                rendered++;
+            } catch (IOException e) {
+                failure = e;
+            }
+        });
+    }
+
+    private void write(BufferedImage image, int generation) throws IOException {
+        directory.mkdirs();
+        if (format == Format.PNG) {
+            ImageIO.write(image, "png", new File(directory, "generation_" + generation + ".png"));
+            return;
+        }
+        if (gifWriter == null) {
+            gifWriter = ImageIO.getImageWritersByFormatName("gif").next();
+            File file = new File(directory, FOLDER + ".gif");
+            file.delete();
+            gifStream = ImageIO.createImageOutputStream(file);
+            gifWriter.setOutput(gifStream);
+            gifWriter.prepareWriteSequence(null);
+        }
+        gifWriter.writeToSequence(new IIOImage(image, null, gifMetadata(image)), null);
+        gifStream.flush();
+    }
+
+    // Verzögerung pro Bild und Endlosschleife (NETSCAPE2.0) für den GIF-Writer
+    private IIOMetadata gifMetadata(BufferedImage image) throws IOException {
+        IIOMetadata metadata = gifWriter.getDefaultImageMetadata(ImageTypeSpecifier.createFromRenderedImage(image), null);
+        String formatName = metadata.getNativeMetadataFormatName();
+        IIOMetadataNode root = (IIOMetadataNode) metadata.getAsTree(formatName);
+
+        IIOMetadataNode control = child(root, "GraphicControlExtension");
+        control.setAttribute("disposalMethod", "none");
+        control.setAttribute("userInputFlag", "FALSE");
+        control.setAttribute("transparentColorFlag", "FALSE");
+        control.setAttribute("delayTime", Integer.toString(GIF_DELAY));
+        control.setAttribute("transparentColorIndex", "0");
+
+        if (rendered == 0) {
+            IIOMetadataNode extensions = child(root, "ApplicationExtensions");
+            IIOMetadataNode loop = new IIOMetadataNode("ApplicationExtension");
+            loop.setAttribute("applicationID", "NETSCAPE");
+            loop.setAttribute("authenticationCode", "2.0");
+            loop.setUserObject(new byte[] {1, 0, 0});
+            extensions.appendChild(loop);
+        }
+        metadata.setFromTree(formatName, root);
+        return metadata;
+    }
+
+    private static IIOMetadataNode child(IIOMetadataNode root, String name) {
+        for (int i = 0; i < root.getLength(); i++) {
+            if (root.item(i).getNodeName().equals(name)) {
+                return (IIOMetadataNode) root.item(i);
+            }
+        }
+        IIOMetadataNode node = new IIOMetadataNode(name);
+        root.appendChild(node);
+        return node;
+    }
+
+    long rendered() {
+        return rendered;
+    }
+
+    long dropped() {
+        return dropped.sum();
+    }
+
+    // Zeichnet die wartenden Bilder noch zu Ende und schließt das GIF
+    @Override
+    public void close() throws IOException {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (gifWriter != null) {
+            try {
+                gifWriter.endWriteSequence();
+            } finally {
+                gifWriter.dispose();
+                gifStream.close();
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package hpmodel;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+// JFR-Ereignis pro Generation, nur aktiv in einer Aufzeichnung (z.B. -XX:StartFlightRecording).
+// Die Phasenzeiten sind über alle Worker summiert, die Dauer des Ereignisses ist die Wandzeit.
+@Name("hpmodel.Generation")
+@Label("GA Generation")
+@Category("HP Model")
+@Description("Phase times, evaluations and allocations of one generation of the genetic algorithm")
+@StackTrace(false)
+final class GenerationEvent extends Event {
+    @Label("Generation")
+    int generation;
+
+    @Label("Evaluations")
+    long evaluations;
+
+    @Label("Evaluation")
+    @Timespan(Timespan.NANOSECONDS)
+    long evaluation;
+
+    @Label("Local Search")
+    @Timespan(Timespan.NANOSECONDS)
+    long localSearch;
+
+    @Label("Statistics")
+    @Timespan(Timespan.NANOSECONDS)
+    long statistics;
+
+    @Label("Selection")
+    @Timespan(Timespan.NANOSECONDS)
+    long selection;
+
+    @Label("Crossover")
+    @Timespan(Timespan.NANOSECONDS)
+    long crossover;
+
+    @Label("Mutation")
+    @Timespan(Timespan.NANOSECONDS)
+    long mutation;
+
+    @Label("Barrier Wait")
+    @Timespan(Timespan.NANOSECONDS)
+    long barrierWait;
+
+    @Label("Allocated")
+    @DataAmount(DataAmount.BYTES)
+    long allocated;
+
+    @Label("Max Queue Depth")
+    int maxQueueDepth;
+}
@@ -0,0 +1,1252 @@
+package hpmodel;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.imageio.ImageIO;
+
+public class GeneticAlgorithm {
+    private static final int POPULATION_SIZE = 200;
+    static final int GENERATIONS = 1000;
+    static final double INITIAL_MUTATION_RATE = 0.1;
+    private static final double MUTATION_RATE_INCREASE = 0.25;
+    private static final double MUTATION_RATE_DECREASE = 0.05;
+    private static final double MAX_MUTATION_RATE = 64.0;
+    private static final double MIN_MUTATION_RATE = 0.01;
+    static final String CSV_FILE = "log.csv";
+    static final String IMAGE_FOLDER = "ga_images";
+    private static final SelectionMode DEFAULT_SELECTION = SelectionMode.TOURNAMENT;
+
+    // How parents are picked. The roulette modes share one RouletteWheel that is built once per generation
+    enum SelectionMode {
+        TOURNAMENT,           // tournamentSelection, k = 20
+        ROULETTE,             // fitness proportional, binary search over prefix sums
+        ROULETTE_ALIAS,       // fitness proportional, alias table with O(1) picks
+        STOCHASTIC_UNIVERSAL  // all parents of a generation with evenly spaced pointers on the wheel
+    }
+
+    // What happens to offspring whose residues collide
+    enum Feasibility {
+        OFF,     // evaluated as they are, the fitness penalises every overlap
+        REPAIR,  // repaired into self-avoiding walks before evaluation, if the search budget allows
+        PRESERVE // crossover and mutation only produce self-avoiding walks
+    }
+
+    private static final int CROSSOVER_ATTEMPTS = 8;
+
+    // Settings from the command line
+    static final class Options implements Cloneable {
+        long seed = System.nanoTime();
+        int threads = Runtime.getRuntime().availableProcessors();
+        SelectionMode selection = DEFAULT_SELECTION;
+        int islands = 1; // more than one island switches to the island model
+        int islandSize = POPULATION_SIZE;
+        int migrationInterval = IslandModel.DEFAULT_MIGRATION_INTERVAL;
+        IslandModel.Topology topology = IslandModel.Topology.RING;
+        boolean steadyState = false;
+        int targetEnergy = 0; // 0: no target, otherwise report the time until this energy is reached
+        boolean targetOptimum = false; // target the ground state computed by ExactSolver
+        String sequence = null; // Examples name, 0/1 or H/P string instead of the benchmark list
+        boolean exact = false; // only solve the sequences exactly, see ExactSolver
+        MetricsSink.Format logFormat = MetricsSink.Format.CSV;
+        int logInterval = 1; // log every n-th generation
+        Genome.Encoding encoding = Genome.Encoding.ABSOLUTE;
+        Lattice lattice = Lattice.SQUARE;
+        Feasibility feasibility = Feasibility.OFF;
+        int cacheSize = 0; // entries of the fitness cache, 0 evaluates every individual
+        int suiteSeeds = 0; // more than 0 runs every Examples sequence with this many seeds
+        int checkpointInterval = 0; // write checkpoint.bin every n-th generation, 0: no checkpoints
+        Path resume = null; // continue the run saved in this checkpoint
+        // Stopping criteria of the generational GA, see Termination; without them all GENERATIONS run
+        boolean stopAtTarget = false;
+        int stagnation = 0;
+        double minDiversity = 0.0;
+        double timeLimit = 0.0; // seconds
+        double restartFraction = 0.0; // more than 0: stagnation and low diversity reseed the worst individuals instead of stopping
+        int memeticElites = 0; // local search on this many of the best individuals per generation, see LocalSearch
+        int memeticSteps = 100; // neighbours tried per elite and generation
+        boolean batch = false; // evaluate the population in SIMD tiles, see BatchEvaluator
+        FrameRenderer.Format frames = FrameRenderer.Format.NONE; // render every improvement of the best solution
+        List<String> remote = null; // evaluate in these EvaluationWorker processes, see RemoteEvaluator
+        String worker = null; // run as an EvaluationWorker on this address instead of the GA
+        String serve = null; // fold the sequences read from this file, "-" for stdin, see FoldingService
+        String listen = null; // fold the sequences sent to this address, see FoldingService
+
+        static Options parse(String[] args) {
+            Options options = new Options();
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--seed" -> options.seed = Long.parseLong(args[++i]);
+                    case "--threads" -> options.threads = Integer.parseInt(args[++i]);
+                    case "--selection" -> options.selection = SelectionMode.valueOf(args[++i].toUpperCase(Locale.ROOT));
+                    case "--islands" -> options.islands = Integer.parseInt(args[++i]);
+                    case "--island-size" -> options.islandSize = Integer.parseInt(args[++i]);
+                    case "--migration-interval" -> options.migrationInterval = Integer.parseInt(args[++i]);
+                    case "--topology" -> options.topology = IslandModel.Topology.valueOf(args[++i].toUpperCase(Locale.ROOT));
+                    case "--steady-state" -> options.steadyState = true;
+                    case "--target-energy" -> {
+                        String target = args[++i];
+                        options.targetOptimum = target.equalsIgnoreCase("optimum");
+                        options.targetEnergy = options.targetOptimum ? 0 : Integer.parseInt(target);
+                    }
+                    case "--sequence" -> options.sequence = args[++i];
+                    case "--exact" -> options.exact = true;
+                    case "--log-format" -> options.logFormat = MetricsSink.Format.valueOf(args[++i].toUpperCase(Locale.ROOT));
+                    case "--log-interval" -> options.logInterval = Integer.parseInt(args[++i]);
+                    case "--encoding" -> options.encoding = Genome.Encoding.valueOf(args[++i].toUpperCase(Locale.ROOT));
+                    case "--lattice" -> options.lattice = Lattice.valueOf(args[++i].toUpperCase(Locale.ROOT));
+                    case "--feasibility" -> options.feasibility = Feasibility.valueOf(args[++i].toUpperCase(Locale.ROOT));
+                    case "--cache" -> options.cacheSize = Integer.parseInt(args[++i]);
+                    case "--suite" -> options.suiteSeeds = Integer.parseInt(args[++i]);
+                    case "--checkpoint" -> options.checkpointInterval = Integer.parseInt(args[++i]);
+                    case "--resume" -> options.resume = Path.of(args[++i]);
+                    case "--stop-at-target" -> options.stopAtTarget = true;
+                    case "--stagnation" -> options.stagnation = Integer.parseInt(args[++i]);
+                    case "--min-diversity" -> options.minDiversity = Double.parseDouble(args[++i]);
+                    case "--time-limit" -> options.timeLimit = Double.parseDouble(args[++i]);
+                    case "--restart" -> options.restartFraction = Double.parseDouble(args[++i]);
+                    case "--memetic" -> options.memeticElites = Integer.parseInt(args[++i]);
+                    case "--memetic-steps" -> options.memeticSteps = Integer.parseInt(args[++i]);
+                    case "--batch" -> options.batch = true;
+                    case "--remote" -> options.remote = List.of(args[++i].split(","));
+                    case "--worker" -> options.worker = args[++i];
+                    case "--serve" -> options.serve = args[++i];
+                    case "--listen" -> options.listen = args[++i];
+                    case "--frames" -> options.frames = FrameRenderer.Format.valueOf(args[++i].toUpperCase(Locale.ROOT));
+                    default -> throw new IllegalArgumentException("Unknown argument: " + args[i]);
+                }
+            }
+            return options;
+        }
+
+        Options copy() {
+            try {
+                return (Options) clone();
+            } catch (CloneNotSupportedException e) {
+                throw new AssertionError(e);
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        Options options = Options.parse(args);
+        if ((options.checkpointInterval > 0 || options.resume != null) && (options.steadyState || options.islands > 1)) {
+            throw new IllegalArgumentException("Checkpoints are only supported by the generational GA");
+        }
+        if ((options.stopAtTarget || options.stagnation > 0 || options.minDiversity > 0 || options.timeLimit > 0)
+                && (options.steadyState || options.islands > 1)) {
+            throw new IllegalArgumentException("Stopping criteria are only supported by the generational GA");
+        }
+        if (options.memeticElites > 0 && (options.steadyState || options.islands > 1)) {
+            throw new IllegalArgumentException("The memetic stage is only supported by the generational GA");
+        }
+        if (options.worker != null) {
+            EvaluationWorker.serve(options.worker);
+            return;
+        }
+        if (options.remote != null && (options.steadyState || options.islands > 1)) {
+            throw new IllegalArgumentException("Remote evaluation is only supported by the generational GA");
+        }
+        if (options.remote != null && (options.cacheSize > 0 || options.batch)) {
+            throw new IllegalArgumentException("Remote evaluation cannot be combined with the fitness cache or batch evaluation");
+        }
+        if (options.frames != FrameRenderer.Format.NONE && (options.steadyState || options.islands > 1)) {
+            throw new IllegalArgumentException("Frames are only supported by the generational GA");
+        }
+        if (options.batch && (options.steadyState || options.islands > 1)) {
+            throw new IllegalArgumentException("Batch evaluation is only supported by the generational GA");
+        }
+        if (options.suiteSeeds > 0 && (options.steadyState || options.islands > 1)) {
+            throw new IllegalArgumentException("The benchmark suite only runs the generational GA");
+        }
+        if (options.cacheSize > 0 && (options.steadyState || options.islands > 1)) {
+            throw new IllegalArgumentException("The fitness cache is only supported by the generational GA");
+        }
+        if (options.batch && options.cacheSize > 0) {
+            throw new IllegalArgumentException("Batch evaluation and the fitness cache cannot be combined");
+        }
+        if ((options.exact || options.targetOptimum) && options.sequence == null
+                && options.suiteSeeds == 0 && options.resume == null) {
+            throw new IllegalArgumentException("--exact and --target-energy optimum need --sequence");
+        }
+        if ((options.sequence != null || options.exact || options.targetOptimum)
+                && (options.suiteSeeds > 0 || options.resume != null)) {
+            throw new IllegalArgumentException("--sequence, --exact and --target-energy optimum apply to single runs only");
+        }
+        if (options.restartFraction < 0 || options.restartFraction > 1) {
+            throw new IllegalArgumentException("Restart fraction must be between 0 and 1: " + options.restartFraction);
+        }
+        if (options.serve != null || options.listen != null) {
+            if (options.serve != null && options.listen != null) {
+                throw new IllegalArgumentException("--serve and --listen cannot be combined");
+            }
+            if (options.steadyState || options.islands > 1 || options.suiteSeeds > 0 || options.resume != null
+                    || options.checkpointInterval > 0 || options.frames != FrameRenderer.Format.NONE
+                    || options.sequence != null || options.exact || options.targetOptimum) {
+                throw new IllegalArgumentException("The folding service runs the generational GA without checkpoints, frames,"
+                        + " --sequence, --exact or --target-energy optimum");
+            }
+            if (options.serve != null) {
+                FoldingService.serve(options, options.serve);
+            } else {
+                FoldingService.listen(options, options.listen);
+            }
+            return;
+        }
+
+        // Test the algorithm with benchmark sequences
+        if (options.resume != null) {
+            if (options.suiteSeeds > 0) {
+                throw new IllegalArgumentException("A suite cannot be resumed");
+            }
+            Checkpoint checkpoint = Checkpoint.read(options.resume);
+            runGeneticAlgorithm(checkpoint.sequence(), checkpoint.applyTo(options), new File("."), true, checkpoint);
+        } else if (options.suiteSeeds > 0) {
+            BenchmarkSuite.run(options);
+        } else {
+            testWithBenchmarks(options);
+        }
+    }
+
+    private static void testWithBenchmarks(Options options) throws IOException {
+        String[] benchmarks = {
+            //Examples.SEQ20, // Best score: 9/9
+            //Examples.SEQ24, // Best score: 8/9
+            //Examples.SEQ25, // Best score: 7/8
+            //Examples.SEQ36, // Best score: 11/14
+            //Examples.SEQ48, // Best score: 18/22
+            //Examples.SEQ50, // Best score: 18/21
+            //Examples.SEQ60, // Best score: 29/34
+            Examples.SEQ64 // Best score: 32/42
+        };
+
+        String[] sequences = new String[benchmarks.length];
+        for (int i = 0; i < benchmarks.length; i++) {
+            sequences[i] = convertToHP(benchmarks[i]);
+        }
+        if (options.sequence != null) {
+            sequences = new String[] {resolveSequence(options.sequence)};
+        }
+
+        for (String sequence : sequences) {
+            Options runOptions = options;
+            if (options.exact || options.targetOptimum) {
+                // Ground state by exhaustive search, feasible up to about 36 residues on the square lattice
+                ExactSolver.Result exact = ExactSolver.solve(sequence, options.lattice, options.threads);
+                System.out.printf(Locale.ROOT, "Optimum for %s: energy %d, moves %s (%d nodes, %.1f s)%n", sequence,
+                        exact.best().calculateEnergy(), exact.best().getMoves(), exact.nodes(), exact.seconds());
+                if (options.exact) {
+                    continue;
+                }
+                if (exact.best().calculateEnergy() == 0) {
+                    // Energy 0 is "no target"; without contacts every overlap-free fold is a ground state anyway
+                    System.out.println("No contacts possible, the GA has nothing to find");
+                    continue;
+                }
+                runOptions = options.copy();
+                runOptions.targetEnergy = exact.best().calculateEnergy();
+            }
+            if (runOptions.steadyState) {
+                runSteadyState(sequence, runOptions);
+            } else if (runOptions.islands > 1) {
+                runIslandModel(sequence, runOptions);
+            } else {
+                runGeneticAlgorithm(sequence, runOptions, new File("."), true);
+            }
+        }
+    }
+
+    // Examples field name (SEQ36), binary string as in Examples or H/P string
+    static String resolveSequence(String sequence) {
+        if (sequence.matches("SEQ\\d+")) {
+            try {
+                return convertToHP((String) Examples.class.getField(sequence).get(null));
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalArgumentException("Unknown sequence: " + sequence, e);
+            }
+        }
+        if (sequence.matches("[01]+")) {
+            return convertToHP(sequence);
+        }
+        if (sequence.matches("[HPhp]+")) {
+            return sequence.toUpperCase(Locale.ROOT);
+        }
+        throw new IllegalArgumentException("Unknown sequence: " + sequence);
+    }
+
+    static String convertToHP(String binarySequence) {
+        StringBuilder hpSequence = new StringBuilder();
+        for (char c : binarySequence.toCharArray()) {
+            if (c == '1') {
+                hpSequence.append('H');
+            } else {
+                hpSequence.append('P');
+            }
+        }
+        return hpSequence.toString();
+    }
+
+    // Outcome of one run
+    record RunResult(HPModel best, int generations, long evaluations, double seconds, double secondsToTarget) {
+    }
+
+    // Log and image go to outputDirectory (neither is written if it is null), verbose prints the progress
+    // and the best solution
+    static RunResult runGeneticAlgorithm(String SEQUENCE, Options options, File outputDirectory, boolean verbose) throws IOException {
+        return runGeneticAlgorithm(SEQUENCE, options, outputDirectory, verbose, null);
+    }
+
+    // With a checkpoint the run continues at its generation, options must come from Checkpoint.applyTo()
+    static RunResult runGeneticAlgorithm(String SEQUENCE, Options options, File outputDirectory, boolean verbose,
+                                         Checkpoint resume) throws IOException {
+        long seed = options.seed;
+        int threads = options.threads;
+        SelectionMode selection = options.selection;
+        double mutationRate = INITIAL_MUTATION_RATE;
+        double previousBestFitness = Double.NEGATIVE_INFINITY;
+
+        // Same seed and thread count give the same run
+        if (verbose) {
+            System.out.println("Seed: " + seed + ", threads: " + threads + ", selection: " + selection + ", lattice: " + options.lattice + ", encoding: " + options.encoding
+                    + ", feasibility: " + options.feasibility + ", cache: " + options.cacheSize);
+        }
+
+        // Every worker owns a fixed range of individuals and offspring pairs and its own random generator
+        int workers = Math.max(1, Math.min(threads, POPULATION_SIZE / 2));
+        SplittableRandom[] workerRandoms = new SplittableRandom[workers];
+        SplittableRandom selectionRandom;
+        HPModel[] population;
+        HPModel[] newGeneration = new HPModel[POPULATION_SIZE];
+        HPModel bestSolution = null;
+        int firstGeneration = 0;
+        long totalEvaluations = 0;
+        long loggedEvaluations = 0;
+        double elapsedSeconds = 0.0;
+        double secondsToTarget = -1.0;
+        if (resume == null) {
+            SplittableRandom masterRandom = new SplittableRandom(seed);
+            // Initialize the population with random solutions
+            population = initializePopulation(SEQUENCE, options.lattice, options.encoding, options.feasibility,
+                    masterRandom.split());
+            for (int w = 0; w < workers; w++) {
+                workerRandoms[w] = masterRandom.split();
+            }
+            selectionRandom = masterRandom.split();
+        } else {
+            if (resume.workers() != workers || !resume.sequence().equals(SEQUENCE)) {
+                throw new IllegalArgumentException("Checkpoint belongs to a different run");
+            }
+            if (verbose) {
+                System.out.println("Resuming at generation " + resume.generation());
+            }
+            population = resume.restorePopulation();
+            for (int w = 0; w < workers; w++) {
+                workerRandoms[w] = new SplittableRandom(resume.workerSeeds()[w]);
+            }
+            selectionRandom = new SplittableRandom(resume.selectionSeed());
+            bestSolution = resume.best().restore(SEQUENCE);
+            mutationRate = resume.mutationRate();
+            previousBestFitness = resume.previousBestFitness();
+            firstGeneration = resume.generation();
+            totalEvaluations = resume.totalEvaluations();
+            loggedEvaluations = resume.loggedEvaluations();
+            elapsedSeconds = resume.elapsedSeconds();
+            secondsToTarget = resume.secondsToTarget();
+        }
+
+        // Selection distribution, rebuilt once per generation and only read by the workers
+        RouletteWheel wheel = new RouletteWheel(POPULATION_SIZE);
+        int[] parentIndices = new int[POPULATION_SIZE];
+
+        // Shared by all workers, duplicates and symmetric folds are looked up instead of evaluated
+        FitnessCache cache = options.cacheSize > 0 ? new FitnessCache(options.cacheSize) : null;
+        long loggedHits = 0, loggedLookups = 0, loggedEvictions = 0;
+
+        // Alternatively the workers evaluate their ranges in tiles, each with its own tile. Only with the
+        // Vector API kernel and up to BatchEvaluator.MAX_RESIDUES, otherwise HPModel is faster
+        boolean batchPays = options.batch && BatchEvaluator.pays(SEQUENCE.length());
+        BatchEvaluator batch = batchPays ? new BatchEvaluator(SEQUENCE, options.lattice) : null;
+        BatchEvaluator.Tile[] tiles = new BatchEvaluator.Tile[workers];
+        if (batch != null) {
+            for (int w = 0; w < workers; w++) {
+                tiles[w] = batch.newTile();
+            }
+        }
+        if (options.batch && verbose) {
+            System.out.println("Batch evaluation: " + (batchPays ? BatchEvaluator.kernelName()
+                    : BatchEvaluator.kernelName() + " kernel would be slower, evaluating per model"));
+        }
+
+        // Stopping criteria; the run ends after the generation that meets one of them
+        Termination termination = resume == null
+                ? new Termination(options, SEQUENCE.length() - 1, options.lattice, 0, Double.NEGATIVE_INFINITY)
+                : new Termination(options, SEQUENCE.length() - 1, options.lattice, resume.lastImprovement(),
+                        bestSolution.calculateFitnessScore());
+        Termination.Reason stopReason = null;
+        int generations = GENERATIONS;
+        int restarts = 0;
+
+        // Log the results of each generation, formatted and written by a background thread;
+        // checkpoints are written by another one
+        if (outputDirectory != null) {
+            outputDirectory.mkdirs();
+        }
+        double seconds;
+        // Improvements of the best solution are drawn by a third background thread, which drops frames it cannot keep up with
+        FrameRenderer frames = options.frames != FrameRenderer.Format.NONE
+                ? new FrameRenderer(SEQUENCE, options.frames, outputDirectory) : null;
+        RemoteEvaluator remote = options.remote != null
+                ? new RemoteEvaluator(options.remote, SEQUENCE, options.lattice, options.encoding, POPULATION_SIZE) : null;
+        if (remote != null && verbose) {
+            System.out.println("Remote evaluation: " + remote.connections() + " workers");
+        }
+        // Create a thread pool for parallel execution, a ThreadPoolExecutor so the tasks can see its queue.
+        // Pool and phase timings are released in the finally below, also when the run fails (e.g. a remote
+        // worker goes away); a long-running FoldingService would otherwise collect pool threads and MBeans
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable);
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        // Phase times, allocations and queue depth, readable over JMX and recorded as JFR events
+        PhaseTimings timings = new PhaseTimings(workers).register();
+        try (MetricsSink metrics = outputDirectory == null ? null : resume == null
+                ? MetricsSink.open(outputDirectory, options.logFormat, options.logInterval, verbose)
+                : MetricsSink.resume(outputDirectory, options.logFormat, options.logInterval, verbose, firstGeneration);
+             CheckpointWriter checkpoints = options.checkpointInterval > 0
+                     ? new CheckpointWriter(new File(outputDirectory, Checkpoint.FILE).toPath()) : null;
+             frames;
+             remote) {
+            // Evaluations per worker in the current generation, counted here because other runs may evaluate concurrently
+            long[] workerEvaluations = new long[workers];
+
+            List<Callable<Void>> tasks = new ArrayList<>(workers);
+            long startTime = System.nanoTime() - (long) (elapsedSeconds * 1e9);
+
+            // Run the genetic algorithm for a specified number of generations
+            for (int generation = firstGeneration; generation < GENERATIONS; generation++) {
+                timings.startGeneration();
+                // Evaluate the fitness of each individual in the population in parallel, one index range per worker
+                final HPModel[] currentPopulation = population;
+                tasks.clear();
+                if (remote != null) {
+                    // Most offspring were sent while breeding, the workers have evaluated them by now
+                    long evaluationStart = System.nanoTime();
+                    Arrays.fill(workerEvaluations, 0);
+                    workerEvaluations[0] = remote.evaluate(currentPopulation);
+                    timings.add(0, PhaseTimings.Phase.EVALUATION, System.nanoTime() - evaluationStart);
+                } else {
+                    for (int w = 0; w < workers; w++) {
+                        final int from = rangeStart(w, workers, POPULATION_SIZE);
+                        final int to = rangeStart(w + 1, workers, POPULATION_SIZE);
+                        final int worker = w;
+                        tasks.add(() -> {
+                            timings.startTask(worker, executor.getQueue().size());
+                            long evaluationStart = System.nanoTime();
+                            long evaluated = 0;
+                            if (batch != null) {
+                                evaluated = batch.evaluate(currentPopulation, from, to, tiles[worker]);
+                            } else {
+                                for (int i = from; i < to; i++) {
+                                    if (cache != null) {
+                                        if (cache.evaluate(currentPopulation[i])) {
+                                            evaluated++;
+                                        }
+                                        continue;
+                                    }
+                                    if (!currentPopulation[i].isEvaluated()) {
+                                        evaluated++;
+                                    }
+                                    currentPopulation[i].calculateFitnessScore();
+                                }
+                            }
+                            workerEvaluations[worker] = evaluated;
+                            timings.add(worker, PhaseTimings.Phase.EVALUATION, System.nanoTime() - evaluationStart);
+                            timings.endTask(worker);
+                            return null;
+                        });
+                    }
+                }
+                long barrierStart = System.nanoTime();
+                runAll(executor, tasks);
+                long statisticsStart = System.nanoTime();
+                timings.barrier(statisticsStart - barrierStart);
+                long generationEvaluations = 0;
+                for (long evaluated : workerEvaluations) {
+                    generationEvaluations += evaluated;
+                }
+                totalEvaluations += generationEvaluations;
+
+                // Save the evaluated population; the random generators restart from the saved seeds, here and on resume
+                if (checkpoints != null && generation > firstGeneration && generation % options.checkpointInterval == 0) {
+                    // The log must reach the generation before the checkpoint, otherwise a resumed log has a gap
+                    if (metrics != null) {
+                        metrics.sync();
+                    }
+                    long selectionSeed = selectionRandom.nextLong();
+                    selectionRandom = new SplittableRandom(selectionSeed);
+                    long[] workerSeeds = new long[workers];
+                    for (int w = 0; w < workers; w++) {
+                        workerSeeds[w] = workerRandoms[w].nextLong();
+                        workerRandoms[w] = new SplittableRandom(workerSeeds[w]);
+                    }
+                    checkpoints.submit(new Checkpoint(SEQUENCE, seed, workers, selection, options.lattice, options.encoding,
+                            options.feasibility, options.checkpointInterval, options.logFormat, options.logInterval,
+                            options.targetEnergy, options.stopAtTarget, options.stagnation, options.minDiversity,
+                            options.timeLimit, options.restartFraction, options.memeticElites, options.memeticSteps, options.cacheSize,
+                            options.batch, options.frames, generation, mutationRate, previousBestFitness,
+                            termination.lastImprovement(), totalEvaluations, loggedEvaluations, (System.nanoTime() - startTime) / 1e9, secondsToTarget,
+                            selectionSeed, workerSeeds, Checkpoint.Individual.of(bestSolution), Checkpoint.snapshot(population)));
+                }
+
+                // Memetic stage: hill climbing on the best individuals, the elites are split over the workers
+                // and improved folds replace their originals before the statistics
+                if (options.memeticElites > 0) {
+                    Integer[] order = byFitness(population);
+                    int elites = Math.min(options.memeticElites, order.length);
+                    tasks.clear();
+                    for (int w = 0; w < workers; w++) {
+                        final int from = order.length - elites + rangeStart(w, workers, elites);
+                        final int to = order.length - elites + rangeStart(w + 1, workers, elites);
+                        final SplittableRandom random = workerRandoms[w];
+                        final int worker = w;
+                        tasks.add(() -> {
+                            timings.startTask(worker, executor.getQueue().size());
+                            long localSearchStart = System.nanoTime();
+                            long evaluated = 0;
+                            for (int e = from; e < to; e++) {
+                                evaluated += LocalSearch.improve(currentPopulation, order[e], options.memeticSteps, SEQUENCE,
+                                        options.feasibility != Feasibility.OFF, random);
+                            }
+                            workerEvaluations[worker] = evaluated;
+                            timings.add(worker, PhaseTimings.Phase.LOCAL_SEARCH, System.nanoTime() - localSearchStart);
+                            timings.endTask(worker);
+                            return null;
+                        });
+                    }
+                    barrierStart = System.nanoTime();
+                    runAll(executor, tasks);
+                    statisticsStart = System.nanoTime();
+                    timings.barrier(statisticsStart - barrierStart);
+                    for (long evaluated : workerEvaluations) {
+                        generationEvaluations += evaluated;
+                        totalEvaluations += evaluated;
+                    }
+                }
+
+                // Find the best solution in the current generation
+                HPModel bestInGeneration = population[0];
+                double totalFitness = 0.0;
+                int infeasible = 0;
+                for (HPModel model : population) {
+                    if (model.calculateFitnessScore() > bestInGeneration.calculateFitnessScore()) {
+                        bestInGeneration = model;
+                    }
+                    totalFitness += model.calculateFitnessScore();
+                    if (model.countOverlaps() > 0) {
+                        infeasible++;
+                    }
+                }
+                if (bestSolution == null || bestInGeneration.calculateFitnessScore() > bestSolution.calculateFitnessScore()) {
+                    bestSolution = bestInGeneration;
+                    if (frames != null) {
+                        frames.submit(bestSolution, generation);
+                    }
+                    if (secondsToTarget < 0 && reachedTarget(bestSolution, options.targetEnergy)) {
+                        secondsToTarget = (System.nanoTime() - startTime) / 1e9;
+                    }
+                }
+
+                Termination.Reason stop = termination.check(generation, bestSolution, population, secondsToTarget >= 0,
+                        (System.nanoTime() - startTime) / 1e9);
+                boolean restart = options.restartFraction > 0
+                        && (stop == Termination.Reason.STAGNATION || stop == Termination.Reason.DIVERSITY);
+
+                if (metrics != null && metrics.sampled(generation, stop != null && !restart ? generation : GENERATIONS - 1)) {
+                    // Calculate the average fitness of the current generation
+                    double averageFitness = totalFitness / population.length;
+                    // Evaluations since the previous log line
+                    long evaluations = totalEvaluations;
+                    // Cache hits and evictions since the previous log line
+                    long hits = cache != null ? cache.hits() : 0;
+                    long lookups = cache != null ? cache.lookups() : 0;
+                    long evictions = cache != null ? cache.evictions() : 0;
+                    metrics.record(generation,
+                            averageFitness,
+                            bestInGeneration.calculateFitnessScore(),
+                            bestSolution.calculateFitnessScore(),
+                            bestSolution.calculateEnergy(),
+                            bestSolution.countOverlaps(),
+                            mutationRate,
+                            evaluations - loggedEvaluations,
+                            (double) infeasible / population.length,
+                            lookups > loggedLookups ? (double) (hits - loggedHits) / (lookups - loggedLookups) : 0.0,
+                            evictions - loggedEvictions);
+                    loggedEvaluations = evaluations;
+                    loggedHits = hits;
+                    loggedLookups = lookups;
+                    loggedEvictions = evictions;
+                }
+
+                if (stop != null && !restart) {
+                    timings.add(PhaseTimings.Phase.STATISTICS, System.nanoTime() - statisticsStart);
+                    timings.endGeneration(generation, generationEvaluations);
+                    stopReason = stop;
+                    generations = generation + 1;
+                    break;
+                }
+
+                // Adjust mutation rate based on fitness improvement
+                mutationRate = adaptMutationRate(mutationRate, bestInGeneration.calculateFitnessScore(), previousBestFitness);
+                previousBestFitness = bestInGeneration.calculateFitnessScore();
+
+                if (restart) {
+                    long evaluated = restart(population, options, SEQUENCE, selectionRandom);
+                    generationEvaluations += evaluated;
+                    totalEvaluations += evaluated;
+                    termination.restarted(generation);
+                    restarts++;
+                }
+
+                long selectionStart = System.nanoTime();
+                timings.add(PhaseTimings.Phase.STATISTICS, selectionStart - statisticsStart);
+                prepareSelection(population, selection, wheel, parentIndices, selectionRandom);
+                timings.add(PhaseTimings.Phase.SELECTION, System.nanoTime() - selectionStart);
+
+                // Create a new generation of solutions in parallel. Each worker fills its own
+                // range of offspring pairs, pair i goes to slots 2i and 2i + 1, so no locking is needed
+                final HPModel[] nextGeneration = newGeneration;
+                final double finalMutationRate = mutationRate;
+                tasks.clear();
+                for (int w = 0; w < workers; w++) {
+                    final int from = rangeStart(w, workers, POPULATION_SIZE / 2); // Da wir zwei Kinder pro Crossover erzeugen, halbieren wir die Anzahl
+                    final int to = rangeStart(w + 1, workers, POPULATION_SIZE / 2);
+                    final SplittableRandom random = workerRandoms[w];
+                    final int worker = w;
+                    tasks.add(() -> {
+                        timings.startTask(worker, executor.getQueue().size());
+                        breed(currentPopulation, nextGeneration, from, to, selection, wheel, parentIndices, random, finalMutationRate,
+                                SEQUENCE, options.feasibility, timings, worker);
+                        if (remote != null) {
+                            remote.submit(nextGeneration, 2 * from, 2 * to);
+                        }
+                        timings.endTask(worker);
+                        return null;
+                    });
+                }
+                barrierStart = System.nanoTime();
+                runAll(executor, tasks);
+                timings.barrier(System.nanoTime() - barrierStart);
+                timings.endGeneration(generation, generationEvaluations);
+
+                // Swap the buffers, the old population array is overwritten in the next generation
+                newGeneration = population;
+                population = nextGeneration;
+            }
+
+            seconds = (System.nanoTime() - startTime) / 1e9;
+            if (verbose) {
+                System.out.println(timings.summary());
+            }
+        } finally {
+            executor.shutdown();
+            timings.unregister();
+        }
+        if (verbose) {
+            if (frames != null) {
+                System.out.println("Frames: " + frames.rendered() + " rendered, " + frames.dropped() + " dropped");
+            }
+            if (stopReason != null) {
+                System.out.println("Stopped after " + generations + " generations: " + termination.describe(stopReason));
+            }
+            if (restarts > 0) {
+                System.out.println("Restarts: " + restarts);
+            }
+            System.out.printf(Locale.ROOT, "Generations per second: %.1f%n", generations / seconds);
+            printThroughput(totalEvaluations, seconds, options.targetEnergy, secondsToTarget);
+
+            // Print the best solution found
+            System.out.println("Best Solution:");
+            System.out.println("Moves: " + bestSolution.getMoves());
+            System.out.println("Fitness Score: " + bestSolution.calculateFitnessScore());
+            System.out.println("Energy: " + bestSolution.calculateEnergy());
+            System.out.println("Overlaps: " + bestSolution.countOverlaps());
+        }
+        if (outputDirectory != null) {
+            generateImageForBestSolution(bestSolution, generations, new File(outputDirectory, IMAGE_FOLDER));
+        }
+        return new RunResult(bestSolution, generations, totalEvaluations, seconds, secondsToTarget);
+    }
+
+    // Replace the worst individuals with new random ones, like initializePopulation; returns the evaluations.
+    // The best individual stays, so the best solution and the selection pressure on it survive the restart
+    private static long restart(HPModel[] population, Options options, String SEQUENCE, SplittableRandom random) {
+        int count = Math.min(population.length - 1, (int) Math.round(population.length * options.restartFraction));
+        Integer[] order = byFitness(population);
+        HPModel[] fresh = initializePopulation(SEQUENCE, count, options.lattice, options.encoding, options.feasibility,
+                random.split());
+        for (int i = 0; i < count; i++) {
+            fresh[i].calculateFitnessScore();
+            population[order[i]] = fresh[i];
+        }
+        return count;
+    }
+
+    // Indices of the population, worst first
+    private static Integer[] byFitness(HPModel[] population) {
+        Integer[] order = new Integer[population.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingDouble(i -> population[i].calculateFitnessScore()));
+        return order;
+    }
+
+    private static void runIslandModel(String SEQUENCE, Options options) throws IOException {
+        // Islands run concurrently on up to options.threads threads and migrants arrive whenever the
+        // neighbour gets there, so island runs are not reproducible from the seed alone
+        System.out.println("Seed: " + options.seed + ", threads: " + options.threads + ", selection: " + options.selection
+                + ", islands: " + options.islands + " x " + options.islandSize + ", migration every "
+                + options.migrationInterval + " generations, topology: " + options.topology);
+        IslandModel model = new IslandModel(SEQUENCE, options.islands, options.islandSize, options.migrationInterval,
+                options.topology, options.selection, options.lattice, options.encoding, options.feasibility, options.seed);
+
+        long startTime = System.nanoTime();
+        HPModel bestSolution = model.run(GENERATIONS, options.threads);
+        double seconds = (System.nanoTime() - startTime) / 1e9;
+        System.out.printf(Locale.ROOT, "Island generations per second: %.1f%n", GENERATIONS * options.islands / seconds);
+
+        try (MetricsSink metrics = MetricsSink.open(new File("."), options.logFormat, options.logInterval, false)) {
+            model.writeLog(metrics, GENERATIONS);
+        }
+        model.printSummary();
+        System.out.println("Best Solution:");
+        System.out.println("Moves: " + bestSolution.getMoves());
+        System.out.println("Fitness Score: " + bestSolution.calculateFitnessScore());
+        System.out.println("Energy: " + bestSolution.calculateEnergy());
+        System.out.println("Overlaps: " + bestSolution.countOverlaps());
+
+        generateImageForBestSolution(bestSolution, GENERATIONS, new File(IMAGE_FOLDER));
+    }
+
+    // Same evaluation budget as the generational mode, but without generations and barriers
+    private static void runSteadyState(String SEQUENCE, Options options) throws IOException {
+        System.out.println("Seed: " + options.seed + ", threads: " + options.threads + ", steady state");
+        SplittableRandom masterRandom = new SplittableRandom(options.seed);
+        HPModel[] population = initializePopulation(SEQUENCE, options.lattice, options.encoding, options.feasibility,
+                masterRandom.split());
+        SplittableRandom[] workerRandoms = new SplittableRandom[Math.max(1, options.threads)];
+        for (int w = 0; w < workerRandoms.length; w++) {
+            workerRandoms[w] = masterRandom.split();
+        }
+
+        SteadyStateGA engine = new SteadyStateGA(SEQUENCE, population, options.targetEnergy, options.feasibility);
+        HPModel bestSolution = engine.run((long) GENERATIONS * POPULATION_SIZE, workerRandoms);
+        printThroughput(engine.evaluations(), engine.seconds(), options.targetEnergy, engine.secondsToTarget());
+
+        System.out.println("Best Solution:");
+        System.out.println("Moves: " + bestSolution.getMoves());
+        System.out.println("Fitness Score: " + bestSolution.calculateFitnessScore());
+        System.out.println("Energy: " + bestSolution.calculateEnergy());
+        System.out.println("Overlaps: " + bestSolution.countOverlaps());
+
+        generateImageForBestSolution(bestSolution, GENERATIONS, new File(IMAGE_FOLDER));
+    }
+
+    static boolean reachedTarget(HPModel model, int targetEnergy) {
+        return targetEnergy != 0 && model.calculateEnergy() <= targetEnergy && model.countOverlaps() == 0;
+    }
+
+    private static void printThroughput(long evaluations, double seconds, int targetEnergy, double secondsToTarget) {
+        System.out.printf(Locale.ROOT, "Evaluations per second: %.0f%n", evaluations / seconds);
+        if (targetEnergy != 0) {
+            if (secondsToTarget >= 0) {
+                System.out.printf(Locale.ROOT, "Time to energy %d: %.3f s%n", targetEnergy, secondsToTarget);
+            } else {
+                System.out.println("Energy " + targetEnergy + " not reached");
+            }
+        }
+    }
+
+    // Halve the mutation rate after an improvement, otherwise raise it step by step
+    static double adaptMutationRate(double mutationRate, double bestFitness, double previousBestFitness) {
+        if (bestFitness > previousBestFitness) {
+            return Math.max(mutationRate / 2, MIN_MUTATION_RATE);
+        }
+        return Math.min(mutationRate + MUTATION_RATE_INCREASE, MAX_MUTATION_RATE);
+    }
+
+    // Rebuild the selection distribution of the current population, SUS also picks all parents here
+    static void prepareSelection(HPModel[] population, SelectionMode selection, RouletteWheel wheel,
+                                 int[] parentIndices, SplittableRandom random) {
+        if (selection != SelectionMode.TOURNAMENT) {
+            wheel.build(population);
+        }
+        if (selection == SelectionMode.STOCHASTIC_UNIVERSAL) {
+            // SUS liefert die Eltern sortiert, gemischt ergeben je zwei davon ein Paar
+            wheel.sampleUniversal(population.length, random, parentIndices);
+            shuffle(parentIndices, random);
+        }
+    }
+
+    // Fill offspring pairs from (inclusive) to to (exclusive), pair i goes to slots 2i and 2i + 1 of nextGeneration
+    // timings may be null, otherwise the selection, crossover and mutation times go to the given worker
+    static void breed(HPModel[] population, HPModel[] nextGeneration, int from, int to, SelectionMode selection,
+                      RouletteWheel wheel, int[] parentIndices, SplittableRandom random, double mutationRate,
+                      String SEQUENCE, Feasibility feasibility, PhaseTimings timings, int worker) {
+        long selectionNanos = 0, crossoverNanos = 0, mutationNanos = 0;
+        for (int pair = from; pair < to; pair++) {
+            long start = System.nanoTime();
+            HPModel parent1;
+            HPModel parent2;
+            if (selection == SelectionMode.STOCHASTIC_UNIVERSAL) {
+                parent1 = population[parentIndices[2 * pair]];
+                parent2 = population[parentIndices[2 * pair + 1]];
+            } else {
+                parent1 = selectParent(population, wheel, selection, random);
+                parent2 = selectParent(population, wheel, selection, random);
+            }
+            long selected = System.nanoTime();
+            List<HPModel> offspringList = crossover(parent1, parent2, random, SEQUENCE, feasibility);
+            long crossed = System.nanoTime();
+            for (int c = 0; c < offspringList.size(); c++) {
+                HPModel offspring = offspringList.get(c);
+                mutate(offspring, random, mutationRate, feasibility);
+                nextGeneration[2 * pair + c] = offspring;
+            }
+            long mutated = System.nanoTime();
+            selectionNanos += selected - start;
+            crossoverNanos += crossed - selected;
+            mutationNanos += mutated - crossed;
+        }
+        if (timings != null) {
+            timings.add(worker, PhaseTimings.Phase.SELECTION, selectionNanos);
+            timings.add(worker, PhaseTimings.Phase.CROSSOVER, crossoverNanos);
+            timings.add(worker, PhaseTimings.Phase.MUTATION, mutationNanos);
+        }
+    }
+
+    // First index of worker w when splitting size elements into equally sized ranges
+    static int rangeStart(int w, int workers, int size) {
+        return (int) ((long) size * w / workers);
+    }
+
+    // Run one task per worker and wait for all of them. A failed task ends the run: its range of the
+    // population would otherwise keep the individuals of an earlier generation
+    static void runAll(ExecutorService executor, List<Callable<Void>> tasks) {
+        try {
+            for (Future<Void> future : executor.invokeAll(tasks)) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Worker task failed: " + e.getCause(), e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for workers", e);
+        }
+    }
+
+    private static void generateImageForBestSolution(HPModel bestSolution, int generation, File dir) {
+        BufferedImage image = renderImage(bestSolution, generation);
+
+        String filename = "generation_" + generation + ".png";
+        if (!dir.exists()) {
+            dir.mkdirs();
+        }
+
+        try {
+            ImageIO.write(image, "png", new File(dir, filename));
+        } catch (IOException e) {
+            e.printStackTrace();
+            System.exit(0);
+        }
+    }
+
+    // Draws the fold scaled to its bounding box, at most 20 px per cell, below the text lines
+    static BufferedImage renderImage(HPModel bestSolution, int generation) {
+        int height = 500;
+        int width = 800;
+
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2 = image.createGraphics();
+        g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+
+        g2.setColor(Color.WHITE);
+        g2.fillRect(0, 0, width, height);
+
+        Map<Integer, AminoAcid> aminoAcids = bestSolution.getAminoAcids();
+        boolean[] overlapping = bestSolution.getOverlapMask();
+
+        int minX = Integer.MAX_VALUE, maxX = Integer.MIN_VALUE, minY = Integer.MAX_VALUE, maxY = Integer.MIN_VALUE;
+        for (AminoAcid acid : aminoAcids.values()) {
+            minX = Math.min(minX, acid.getX());
+            maxX = Math.max(maxX, acid.getX());
+            minY = Math.min(minY, acid.getY());
+            maxY = Math.max(maxY, acid.getY());
+        }
+        int top = 110; // text lines
+        int margin = 10;
+        int cellSize = Math.max(2, Math.min(20, Math.min((width - 2 * margin) / (maxX - minX + 1),
+                (height - top - margin) / (maxY - minY + 1))));
+        int offsetX = (width - (maxX - minX + 1) * cellSize) / 2 - minX * cellSize;
+        int offsetY = top + (height - top - margin - (maxY - minY + 1) * cellSize) / 2 + maxY * cellSize;
+
+        // Draw the HP model
+        for (int i = 0; i < aminoAcids.size(); i++) {
+            AminoAcid acid = aminoAcids.get(i);
+            int x = offsetX + acid.getX() * cellSize;
+            int y = offsetY - acid.getY() * cellSize; // Invert y-coordinate
+
+            if (overlapping[i]) {
+                g2.setColor(Color.ORANGE); // Overlapping amino acids
+            } else if (acid.getType() == 'H') {
+                g2.setColor(Color.BLACK); // Hydrophobic
+            } else {
+                g2.setColor(Color.WHITE); // Hydrophilic
+                g2.fillOval(x, y, cellSize, cellSize);
+                g2.setColor(Color.BLACK); // Border for hydrophilic
+                g2.drawOval(x, y, cellSize, cellSize);
+            }
+
+            if (acid.getType() == 'H' || overlapping[i]) {
+                g2.fillOval(x, y, cellSize, cellSize);
+            }
+
+            // Draw the index of the amino acid, if it still fits
+            if (cellSize >= 16) {
+                g2.setColor(Color.RED);
+                g2.drawString(String.valueOf(acid.getId()), x + cellSize / 2 - 4, y + cellSize / 2 + 4);
+            }
+
+            if (i > 0) {
+                AminoAcid prev = aminoAcids.get(i - 1);
+                int prevX = offsetX + prev.getX() * cellSize;
+                int prevY = offsetY - prev.getY() * cellSize; // Invert y-coordinate
+                g2.setColor(Color.RED);
+                g2.drawLine(prevX + cellSize / 2, prevY + cellSize / 2, x + cellSize / 2, y + cellSize / 2);
+            }
+        }
+
+        // Add text with important information
+        g2.setColor(Color.BLACK);
+        g2.drawString("Generation: " + generation, 10, 20);
+        g2.drawString("Fitness Score: " + bestSolution.calculateFitnessScore(), 10, 40);
+        g2.drawString("Energy: " + bestSolution.calculateEnergy(), 10, 60);
+        g2.drawString("Overlaps: " + bestSolution.countOverlaps(), 10, 80);
+        if (bestSolution.lattice() != Lattice.SQUARE) {
+            g2.drawString("Lattice: " + bestSolution.lattice() + " (x-y projection)", 10, 100);
+        }
+        g2.dispose();
+        return image;
+    }
+
+    // Initialize the population with random moves
+    private static HPModel[] initializePopulation(String SEQUENCE, Lattice lattice, Genome.Encoding encoding,
+                                                  Feasibility feasibility, SplittableRandom random) {
+        return initializePopulation(SEQUENCE, POPULATION_SIZE, lattice, encoding, feasibility, random);
+    }
+
+    static HPModel[] initializePopulation(String SEQUENCE, int size, Lattice lattice, Genome.Encoding encoding,
+                                          Feasibility feasibility, SplittableRandom random) {
+        HPModel[] population = new HPModel[size];
+        for (int i = 0; i < size; i++) {
+            population[i] = new HPModel(SEQUENCE, Genome.random(SEQUENCE.length() - 1, lattice, encoding, random));
+            if (feasibility != Feasibility.OFF) {
+                repair(population[i]);
+            }
+        }
+        return population;
+    }
+
+    static String randomMoves(int length, SplittableRandom random) {
+        return randomMoves(length, Lattice.SQUARE, random);
+    }
+
+    static String randomMoves(int length, Lattice lattice, SplittableRandom random) {
+        byte[] codes = new byte[length];
+        Genome.random(length, lattice, Genome.Encoding.ABSOLUTE, random).decode(codes);
+        char[] moves = new char[length];
+        for (int i = 0; i < length; i++) {
+            moves[i] = HPModel.MOVE_CHARS[codes[i]];
+        }
+        return new String(moves);
+    }
+
+    private static HPModel selectParent(HPModel[] population, RouletteWheel wheel, SelectionMode selection, SplittableRandom random) {
+        switch (selection) {
+            case ROULETTE:
+                return population[wheel.pick(random)];
+            case ROULETTE_ALIAS:
+                return population[wheel.pickAlias(random)];
+            default:
+                return tournamentSelection(population, random);
+        }
+    }
+
+    // Fisher-Yates
+    private static void shuffle(int[] values, SplittableRandom random) {
+        for (int i = values.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = values[i];
+            values[i] = values[j];
+            values[j] = tmp;
+        }
+    }
+
+    static HPModel tournamentSelection(HPModel[] population, SplittableRandom random) {
+        int k = 20;
+        //k soll zwischen 2 und population.length liegen
+        //int k = random.nextInt(population.length - 1) + 2;
+
+        double t = 0.75;
+    
+        HPModel bestCandidate = population[random.nextInt(population.length)];
+        for (int i = 1; i < k; i++) {
+            HPModel candidate = population[random.nextInt(population.length)];
+            double r = random.nextDouble();
+            // herausforder und bessere kandidat erstellen und dann abhängig von r entscheiden wer gewinnt
+            if ((candidate.calculateFitnessScore() > bestCandidate.calculateFitnessScore() && r < t) ||
+            (candidate.calculateFitnessScore() < bestCandidate.calculateFitnessScore() && r >= t)) {
+            bestCandidate = candidate;
+        }
+        }
+    
+        return bestCandidate;
+    }
+
+    // Two mutated children of the parents, built according to the feasibility mode
+    static List<HPModel> offspring(HPModel parent1, HPModel parent2, SplittableRandom random, double mutationRate,
+                                   String SEQUENCE, Feasibility feasibility) {
+        List<HPModel> children = crossover(parent1, parent2, random, SEQUENCE, feasibility);
+        for (HPModel child : children) {
+            mutate(child, random, mutationRate, feasibility);
+        }
+        return children;
+    }
+
+    static List<HPModel> crossover(HPModel parent1, HPModel parent2, SplittableRandom random, String SEQUENCE,
+                                   Feasibility feasibility) {
+        return feasibility == Feasibility.PRESERVE
+                ? feasibleCrossover(parent1, parent2, random, SEQUENCE)
+                : crossover(parent1, parent2, random, SEQUENCE);
+    }
+
+    static void mutate(HPModel model, SplittableRandom random, double mutationRate, Feasibility feasibility) {
+        if (feasibility == Feasibility.PRESERVE) {
+            feasibleMutate(model, random, mutationRate);
+            return;
+        }
+        mutate(model, random, mutationRate);
+        if (feasibility == Feasibility.REPAIR) {
+            repair(model);
+        }
+    }
+
+    // Turn a colliding fold into a self-avoiding walk, false if the search budget was not enough
+    static boolean repair(HPModel model) {
+        byte[] codes = model.getMoveCodes();
+        if (SelfAvoidingWalk.isSelfAvoiding(codes)) {
+            return true;
+        }
+        if (!SelfAvoidingWalk.repair(codes, model.lattice())) {
+            return false;
+        }
+        model.setGenome(encodeWalk(codes, model.getGenome()));
+        return true;
+    }
+
+    // Relativ beginnt jede Faltung nach rechts; eine Faltung, die nach links beginnt, wird dafür an der
+    // senkrechten Achse gespiegelt (gleiche Energie, gleiche Überlappungen)
+    static Genome encodeWalk(byte[] codes, Genome like) {
+        Genome.Encoding encoding = like.encoding();
+        if (encoding == Genome.Encoding.RELATIVE && codes.length > 0 && codes[0] == HPModel.MOVE_L) {
+            for (int i = 0; i < codes.length; i++) {
+                if (codes[i] == HPModel.MOVE_R || codes[i] == HPModel.MOVE_L) {
+                    codes[i] ^= 1;
+                }
+            }
+        }
+        return Genome.encode(codes, like.lattice(), encoding);
+    }
+
+    // Perform crossover between two parents to create a new offspring
+    static List<HPModel> crossover(HPModel parent1, HPModel parent2, SplittableRandom random, String SEQUENCE) {
+        Genome genome1 = parent1.getGenome();
+        Genome genome2 = parent2.getGenome();
+        Genome childGenome1 = new Genome(genome1.lattice(), genome1.encoding(), genome1.length());
+        Genome childGenome2 = new Genome(genome1.lattice(), genome1.encoding(), genome1.length());
+
+        // Wähle einen zufälligen Punkt für den Crossover
+        int crossoverPoint = random.nextInt(genome1.length());
+
+        // Kombiniere die Teile der Elternteile wortweise, um zwei neue Kinder zu erzeugen
+        Genome.crossover(genome1, genome2, crossoverPoint, childGenome1, childGenome2);
+
+        // Rückgabe der beiden Kinder als Liste
+        List<HPModel> children = new ArrayList<>(2);
+        children.add(new HPModel(SEQUENCE, childGenome1));
+        children.add(new HPModel(SEQUENCE, childGenome2));
+        return children;
+    }
+
+    // Crossover that only returns self-avoiding children: a few crossover points are tried, then the
+    // children are repaired, and a child that cannot be repaired is replaced by a copy of its parent
+    static List<HPModel> feasibleCrossover(HPModel parent1, HPModel parent2, SplittableRandom random, String SEQUENCE) {
+        Genome genome1 = parent1.getGenome();
+        Genome genome2 = parent2.getGenome();
+        Genome childGenome1 = new Genome(genome1.lattice(), genome1.encoding(), genome1.length());
+        Genome childGenome2 = new Genome(genome1.lattice(), genome1.encoding(), genome1.length());
+        byte[] codes1 = new byte[genome1.length()];
+        byte[] codes2 = new byte[genome1.length()];
+
+        for (int attempt = 0; attempt < CROSSOVER_ATTEMPTS; attempt++) {
+            Genome.crossover(genome1, genome2, random.nextInt(genome1.length()), childGenome1, childGenome2);
+            childGenome1.decode(codes1);
+            childGenome2.decode(codes2);
+            if (SelfAvoidingWalk.isSelfAvoiding(codes1) && SelfAvoidingWalk.isSelfAvoiding(codes2)) {
+                break;
+            }
+        }
+
+        List<HPModel> children = new ArrayList<>(2);
+        children.add(feasibleChild(SEQUENCE, childGenome1, codes1, parent1));
+        children.add(feasibleChild(SEQUENCE, childGenome2, codes2, parent2));
+        return children;
+    }
+
+    private static HPModel feasibleChild(String SEQUENCE, Genome genome, byte[] codes, HPModel parent) {
+        if (SelfAvoidingWalk.isSelfAvoiding(codes)) {
+            return new HPModel(SEQUENCE, genome);
+        }
+        if (SelfAvoidingWalk.repair(codes, genome.lattice())) {
+            return new HPModel(SEQUENCE, encodeWalk(codes, genome));
+        }
+        return new HPModel(SEQUENCE, parent.getGenome());
+    }
+
+    // Like mutate, but a mutation point only takes a move that keeps the walk self-avoiding
+    static void feasibleMutate(HPModel model, SplittableRandom random, double mutationRate) {
+        if (random.nextDouble() > mutationRate) {
+            return;
+        }
+
+        Genome genome = model.getGenome().copy();
+        int length = genome.length();
+        byte[] codes = new byte[length];
+        int numberOfMutations = mutationRate >= 1.0 ? Math.min((int) mutationRate, length)
+                : random.nextDouble() <= mutationRate ? 1 : 0;
+        for (int i = 0; i < numberOfMutations; i++) {
+            applyFeasibleMutation(genome, random.nextInt(length), random, codes);
+        }
+        model.setGenome(genome);
+    }
+
+    private static void applyFeasibleMutation(Genome genome, int mutationPoint, SplittableRandom random, byte[] codes) {
+        int currentMove = genome.get(mutationPoint);
+        int moves = genome.encoding() == Genome.Encoding.RELATIVE ? 3 : genome.lattice().directions();
+        // Die anderen Züge in zufälliger Reihenfolge versuchen, sonst bleibt der Zug wie er ist
+        int offset = random.nextInt(moves);
+        for (int i = 0; i < moves; i++) {
+            int move = (offset + i) % moves;
+            if (move == currentMove) {
+                continue;
+            }
+            genome.set(mutationPoint, move);
+            genome.decode(codes);
+            if (SelfAvoidingWalk.isSelfAvoiding(codes)) {
+                return;
+            }
+        }
+        genome.set(mutationPoint, currentMove);
+    }
+
+    static void mutate(HPModel model, SplittableRandom random, double mutationRate) {
+        // return without mutation if random number is greater than mutation rate
+        if (random.nextDouble() > mutationRate) {
+            return;
+        }
+
+        Genome genome = model.getGenome().copy();
+        int length = genome.length();
+    
+        if (mutationRate >= 1.0) {
+            // Multi-point mutation
+            int numberOfMutations = Math.min((int) (mutationRate), length);
+            for (int i = 0; i < numberOfMutations; i++) {
+                int mutationPoint = random.nextInt(length);
+                applyMutation(genome, mutationPoint, random);
+            }
+        } else {
+            // Single-point mutation
+            if (random.nextDouble() <= mutationRate) {
+                int mutationPoint = random.nextInt(length);
+                applyMutation(genome, mutationPoint, random);
+            }
+        }
+    
+        // Alle Mutationen werden gesammelt übernommen. Ein frisches Kind ist noch unbewertet, dann werden nur
+        // die Positionen ab dem ersten geänderten Zug nachgezogen und die Bewertung kostet weiter O(n)
+        model.setGenome(genome);
+    }
+    
+    private static void applyMutation(Genome genome, int mutationPoint, SplittableRandom random) {
+        int currentMove = genome.get(mutationPoint);
+        if (genome.encoding() == Genome.Encoding.RELATIVE) {
+            // Einer der beiden anderen Codes (geradeaus, links, rechts), ein Rückschritt ist nicht darstellbar
+            genome.set(mutationPoint, (currentMove + 1 + random.nextInt(2)) % 3);
+            return;
+        }
+
+        // Erlaubt ist jeder Zug außer der Gegenrichtung des vorherigen Zugs (Code ^ 1) und dem aktuellen Zug
+        int reverseMove = mutationPoint > 0 ? genome.get(mutationPoint - 1) ^ 1 : -1;
+        int directions = genome.lattice().directions();
+        int validMoves = 0;
+        for (int move = 0; move < directions; move++) {
+            if (move != reverseMove && move != currentMove) {
+                validMoves++;
+            }
+        }
+
+        int choice = random.nextInt(validMoves);
+        for (int move = 0; move < directions; move++) {
+            if (move != reverseMove && move != currentMove && choice-- == 0) {
+                genome.set(mutationPoint, move);
+                return;
+            }
+        }
+    }
+
+    public static void clearScreen() {
+        try {
+            String os = System.getProperty("os.name");
+            if (os.contains("Windows")) {
+                new ProcessBuilder("cmd", "/c", "cls").inheritIO().start().waitFor();
+            } else {
+                new ProcessBuilder("clear").inheritIO().start().waitFor();
+            }
+        } catch (Exception e) {
+            System.err.println("Error clearing screen: " + e.getMessage());
+        }
+    }
+}
\ No newline at end of file
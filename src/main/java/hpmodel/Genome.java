@@ -0,0 +1,278 @@
+package hpmodel;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+// Kompaktes Genom: auf dem quadratischen Gitter 2 Bit pro Zug, 32 Züge pro long, Zug i liegt in
+// Wort i / 32 an Bit (i % 32) * 2; auf dem kubischen Gitter 4 Bit pro Zug, 16 Züge pro long.
+// ABSOLUTE speichert die Richtungen R/L/U/D(/F/B) mit denselben Codes wie HPModel (Gegenrichtung = Code ^ 1),
+// RELATIVE speichert Geradeaus/Links/Rechts bezogen auf die vorherige Richtung (Start: nach rechts),
+// damit ist ein direkter Rückschritt gar nicht darstellbar; das gibt es nur auf dem quadratischen Gitter.
+// Ein Genom, das an einem HPModel hängt, wird nicht mehr verändert; Operatoren schreiben in neue Genome.
+public final class Genome {
+    public enum Encoding {
+        ABSOLUTE,
+        RELATIVE
+    }
+
+    static final int FORWARD = 0;
+    static final int LEFT = 1;
+    static final int RIGHT = 2;
+
+    // Neue Richtung nach einer Links- bzw. Rechtsdrehung, Index = alte Richtung (R, L, U, D)
+    private static final byte[] TURN_LEFT = {HPModel.MOVE_U, HPModel.MOVE_D, HPModel.MOVE_L, HPModel.MOVE_R};
+    private static final byte[] TURN_RIGHT = {HPModel.MOVE_D, HPModel.MOVE_U, HPModel.MOVE_R, HPModel.MOVE_L};
+    // Erlaubte Folgezüge einer absoluten Zufallsfaltung (kein Rückschritt), Index = letzter Zug, 4 = Anfang
+    private static final byte[][] NEXT_MOVES = {
+        {HPModel.MOVE_U, HPModel.MOVE_D, HPModel.MOVE_R},
+        {HPModel.MOVE_U, HPModel.MOVE_D, HPModel.MOVE_L},
+        {HPModel.MOVE_U, HPModel.MOVE_L, HPModel.MOVE_R},
+        {HPModel.MOVE_D, HPModel.MOVE_L, HPModel.MOVE_R},
+        {HPModel.MOVE_U, HPModel.MOVE_D, HPModel.MOVE_L, HPModel.MOVE_R}
+    };
+
+    private final Lattice lattice;
+    private final Encoding encoding;
+    private final int length;
+    private final int bits;      // Bits pro Zug
+    private final int wordShift; // log2 der Züge pro Wort
+    private final long[] words;
+
+    // Gerade Kette: nur Züge nach rechts bzw. geradeaus
+    public Genome(Encoding encoding, int length) {
+        this(Lattice.SQUARE, encoding, length);
+    }
+
+    public Genome(Lattice lattice, Encoding encoding, int length) {
+        this(lattice, encoding, length, new long[wordCount(lattice, length)]);
+    }
+
+    private Genome(Lattice lattice, Encoding encoding, int length, long[] words) {
+        if (encoding == Encoding.RELATIVE && lattice != Lattice.SQUARE) {
+            throw new IllegalArgumentException("Relative Kodierung gibt es nur auf dem quadratischen Gitter");
+        }
+        this.lattice = lattice;
+        this.encoding = encoding;
+        this.length = length;
+        this.bits = lattice.bitsPerMove();
+        this.wordShift = wordShift(bits);
+        this.words = words;
+    }
+
+    private static int wordShift(int bits) {
+        return Integer.numberOfTrailingZeros(Long.SIZE / bits);
+    }
+
+    static int wordCount(Lattice lattice, int length) {
+        int movesPerWord = Long.SIZE / lattice.bitsPerMove();
+        return (length + movesPerWord - 1) / movesPerWord;
+    }
+
+    // Absolutes Genom aus einer Zugfolge wie "RULD"
+    public static Genome fromMoves(String moves) {
+        return fromMoves(Lattice.SQUARE, moves);
+    }
+
+    public static Genome fromMoves(Lattice lattice, String moves) {
+        Genome genome = new Genome(lattice, Encoding.ABSOLUTE, moves.length());
+        for (int i = 0; i < moves.length(); i++) {
+            genome.set(i, lattice.encodeMove(moves.charAt(i)));
+        }
+        return genome;
+    }
+
+    static Genome fromMoveCodes(byte[] moveCodes) {
+        return fromMoveCodes(moveCodes, Lattice.SQUARE);
+    }
+
+    // Die Wörter werden vor dem Konstruktor gefüllt, damit das Genom auch ohne Synchronisation
+    // vollständig sichtbar ist (HPModel erzeugt es bei Bedarf, gelesen wird es von mehreren Threads)
+    static Genome fromMoveCodes(byte[] moveCodes, Lattice lattice) {
+        long[] words = new long[wordCount(lattice, moveCodes.length)];
+        int bits = lattice.bitsPerMove();
+        for (int i = 0; i < moveCodes.length; i++) {
+            put(words, bits, i, moveCodes[i]);
+        }
+        return new Genome(lattice, Encoding.ABSOLUTE, moveCodes.length, words);
+    }
+
+    // Genom in der gewünschten Kodierung aus absoluten Zugcodes; relativ geht nur ohne direkten Rückschritt
+    static Genome encode(byte[] moveCodes, Lattice lattice, Encoding encoding) {
+        if (encoding == Encoding.ABSOLUTE) {
+            return fromMoveCodes(moveCodes, lattice);
+        }
+        Genome genome = new Genome(lattice, Encoding.RELATIVE, moveCodes.length);
+        byte heading = HPModel.MOVE_R;
+        for (int i = 0; i < moveCodes.length; i++) {
+            byte move = moveCodes[i];
+            if (move == heading) {
+                genome.set(i, FORWARD);
+            } else if (move == TURN_LEFT[heading]) {
+                genome.set(i, LEFT);
+            } else if (move == TURN_RIGHT[heading]) {
+                genome.set(i, RIGHT);
+            } else {
+                throw new IllegalArgumentException("Rückschritt bei Zug " + i + " ist relativ nicht darstellbar");
+            }
+            heading = move;
+        }
+        return genome;
+    }
+
+    public static Genome random(int length, Encoding encoding, SplittableRandom random) {
+        return random(length, Lattice.SQUARE, encoding, random);
+    }
+
+    // Zufällige Faltung ohne direkten Rückschritt
+    public static Genome random(int length, Lattice lattice, Encoding encoding, SplittableRandom random) {
+        Genome genome = new Genome(lattice, encoding, length);
+        if (encoding == Encoding.RELATIVE) {
+            for (int i = 0; i < length; i++) {
+                genome.set(i, random.nextInt(3));
+            }
+        } else if (lattice == Lattice.SQUARE) {
+            int lastMove = 4;
+            for (int i = 0; i < length; i++) {
+                byte[] validMoves = NEXT_MOVES[lastMove];
+                lastMove = validMoves[random.nextInt(validMoves.length)];
+                genome.set(i, lastMove);
+            }
+        } else {
+            // Einer der übrigen Züge, die Gegenrichtung des letzten Zugs wird übersprungen
+            int directions = lattice.directions();
+            int lastMove = -1;
+            for (int i = 0; i < length; i++) {
+                int move = random.nextInt(lastMove < 0 ? directions : directions - 1);
+                if (lastMove >= 0 && move >= (lastMove ^ 1)) {
+                    move++;
+                }
+                genome.set(i, move);
+                lastMove = move;
+            }
+        }
+        return genome;
+    }
+
+    public Lattice lattice() {
+        return lattice;
+    }
+
+    public Encoding encoding() {
+        return encoding;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    public int get(int index) {
+        int shift = (index & ((1 << wordShift) - 1)) * bits;
+        return (int) (words[index >>> wordShift] >>> shift) & ((1 << bits) - 1);
+    }
+
+    public void set(int index, int code) {
+        put(words, bits, index, code);
+    }
+
+    private static void put(long[] words, int bits, int index, int code) {
+        int wordShift = wordShift(bits);
+        int shift = (index & ((1 << wordShift) - 1)) * bits;
+        int word = index >>> wordShift;
+        long mask = (1L << bits) - 1;
+        words[word] = (words[word] & ~(mask << shift)) | ((long) code << shift);
+    }
+
+    public Genome copy() {
+        return new Genome(lattice, encoding, length, words.clone());
+    }
+
+    // Absolute Zugcodes (R=0, L=1, U=2, D=3, F=4, B=5) in moveCodes schreiben
+    void decode(byte[] moveCodes) {
+        int movesPerWord = 1 << wordShift;
+        if (encoding == Encoding.ABSOLUTE) {
+            long mask = (1L << bits) - 1;
+            for (int w = 0, i = 0; w < words.length; w++) {
+                long word = words[w];
+                for (int end = Math.min(i + movesPerWord, length); i < end; i++) {
+                    moveCodes[i] = (byte) (word & mask);
+                    word >>>= bits;
+                }
+            }
+            return;
+        }
+        byte heading = HPModel.MOVE_R;
+        for (int w = 0, i = 0; w < words.length; w++) {
+            long word = words[w];
+            for (int end = Math.min(i + movesPerWord, length); i < end; i++) {
+                int turn = (int) (word & 3);
+                if (turn == LEFT) {
+                    heading = TURN_LEFT[heading];
+                } else if (turn == RIGHT) {
+                    heading = TURN_RIGHT[heading];
+                }
+                moveCodes[i] = heading;
+                word >>>= 2;
+            }
+        }
+    }
+
+    // Wörter für Checkpoints, Länge, Gitter und Kodierung speichert der Aufrufer
+    void writeWords(ByteBuffer buffer) {
+        for (long word : words) {
+            buffer.putLong(word);
+        }
+    }
+
+    static Genome readWords(ByteBuffer buffer, Lattice lattice, Encoding encoding, int length) {
+        long[] words = new long[wordCount(lattice, length)];
+        for (int w = 0; w < words.length; w++) {
+            words[w] = buffer.getLong();
+        }
+        return new Genome(lattice, encoding, length, words);
+    }
+
+    // Überschreibt die Wörter in place, nur für Puffer-Genome, die an keinem HPModel hängen
+    void overwriteWords(ByteBuffer buffer) {
+        for (int w = 0; w < words.length; w++) {
+            words[w] = buffer.getLong();
+        }
+    }
+
+    // Einpunkt-Crossover auf Wortebene: Züge vor point vom eigenen Elternteil, ab point vom anderen
+    static void crossover(Genome parent1, Genome parent2, int point, Genome child1, Genome child2) {
+        if (parent1.lattice != parent2.lattice || parent1.encoding != parent2.encoding || parent1.length != parent2.length) {
+            throw new IllegalArgumentException("Genomes do not match: " + parent1.lattice + "/" + parent1.encoding + "/"
+                    + parent1.length + " and " + parent2.lattice + "/" + parent2.encoding + "/" + parent2.length);
+        }
+        long[] a = parent1.words, b = parent2.words;
+        int split = point >>> parent1.wordShift;
+        System.arraycopy(a, 0, child1.words, 0, split);
+        System.arraycopy(b, 0, child2.words, 0, split);
+        if (split < a.length) {
+            long low = (1L << ((point & ((1 << parent1.wordShift) - 1)) * parent1.bits)) - 1; // Bits der Züge vor point im geteilten Wort
+            child1.words[split] = (a[split] & low) | (b[split] & ~low);
+            child2.words[split] = (b[split] & low) | (a[split] & ~low);
+            System.arraycopy(b, split + 1, child1.words, split + 1, a.length - split - 1);
+            System.arraycopy(a, split + 1, child2.words, split + 1, a.length - split - 1);
+        }
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof Genome)) {
+            return false;
+        }
+        Genome genome = (Genome) other;
+        return lattice == genome.lattice && encoding == genome.encoding && length == genome.length
+                && Arrays.equals(words, genome.words);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * (31 * lattice.ordinal() + encoding.ordinal()) + length) + Arrays.hashCode(words);
+    }
+}
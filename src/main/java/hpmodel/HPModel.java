@@ -0,0 +1,545 @@
+package hpmodel;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+class AminoAcid {
+    private final int id;
+    private final char type;
+    private final int x;
+    private final int y;
+
+    public AminoAcid(int id, char type, int x, int y) {
+        this.id = id;
+        this.type = type;
+        this.x = x;
+        this.y = y;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public char getType() {
+        return type;
+    }
+
+    public int getX() {
+        return x;
+    }
+
+    public int getY() {
+        return y;
+    }
+}
+
+public class HPModel {
+    // Zugkodierung: R=0, L=1, U=2, D=3, damit gilt: Gegenrichtung = Code ^ 1
+    static final byte MOVE_R = 0;
+    static final byte MOVE_L = 1;
+    static final byte MOVE_U = 2;
+    static final byte MOVE_D = 3;
+    static final byte MOVE_F = 4; // nur auf dem kubischen Gitter
+    static final byte MOVE_B = 5;
+    static final char[] MOVE_CHARS = Lattice.MOVE_CHARS;
+    private static final int[] DX = Lattice.DX;
+    private static final int[] DY = Lattice.DY;
+    private static final int[] DZ = Lattice.DZ;
+    private static final LongAdder EVALUATIONS = new LongAdder();
+
+    private final Lattice lattice;
+    private final int directions; // Gitternachbarn pro Rest: 4 bzw. 6
+    private final String sequence;
+    private final int length;
+    private final byte[] hydrophobic; // 1 = H, 0 = P
+    private final byte[] moveCodes;
+    private final int[] xs;
+    private final int[] ys;
+    private final int[] zs; // auf dem quadratischen Gitter immer 0
+    private String moves; // wird nur bei Bedarf aus moveCodes erzeugt
+    private Genome genome; // Genom, aus dem die Züge stammen, sonst bei Bedarf aus moveCodes erzeugt
+    private Map<Integer, AminoAcid> aminoAcids; // Kompatibilitätssicht, wird nur bei Bedarf erzeugt
+
+    // Zwischengespeicherte Bewertung, gültig solange evaluated == true. Die Felder werden vor
+    // dem volatile-Schreiben von evaluated gesetzt und sind damit für alle Threads sichtbar,
+    // die evaluated == true lesen. Parallele Erstberechnungen liefern dieselben Werte.
+    private int energy;
+    private int overlaps;
+    private double fitness;
+    private volatile boolean evaluated;
+
+    // Eigene Belegungstabelle für inkrementelle Bewertungen, wird erst bei Bedarf angelegt
+    private OccupancyTable occupancy;
+    private int[] segments; // pro Rest: Nummer des starren Stücks bei der letzten Änderung
+    private final int[][] shifts = new int[3][]; // pro Achse, für setMoveCodes()
+    private boolean occupancyValid;
+
+    public HPModel(String sequence, String moves) {
+        this(Lattice.SQUARE, sequence, moves);
+    }
+
+    public HPModel(Lattice lattice, String sequence, String moves) {
+        this(lattice, sequence);
+        setMoves(moves);
+    }
+
+    // Modell direkt aus einem Genom, die Züge werden einmal dekodiert; das Gitter ist das des Genoms
+    public HPModel(String sequence, Genome genome) {
+        this(genome.lattice(), sequence);
+        if (genome.length() != moveCodes.length) {
+            throw new IllegalArgumentException("Genom mit " + genome.length() + " Zügen passt nicht zu "
+                    + length + " Resten");
+        }
+        genome.decode(moveCodes);
+        this.genome = genome;
+        calculatePositions();
+    }
+
+    private HPModel(Lattice lattice, String sequence) {
+        this.lattice = lattice;
+        this.directions = lattice.directions();
+        this.sequence = sequence;
+        this.length = sequence.length();
+        this.hydrophobic = new byte[length];
+        for (int i = 0; i < length; i++) {
+            hydrophobic[i] = (byte) (sequence.charAt(i) == 'H' ? 1 : 0);
+        }
+        this.moveCodes = new byte[Math.max(length - 1, 0)];
+        this.xs = new int[length];
+        this.ys = new int[length];
+        this.zs = new int[length];
+    }
+
+    // Zugcode auf dem quadratischen Gitter
+    static byte encodeMove(char move) {
+        return Lattice.SQUARE.encodeMove(move);
+    }
+
+    private void calculatePositions() {
+        xs[0] = 0;
+        ys[0] = 0;
+        zs[0] = 0;
+        calculatePositions(0);
+    }
+
+    // Berechnet die Positionen ab Rest from + 1 neu, Rest from bleibt liegen
+    private void calculatePositions(int from) {
+        int x = xs[from], y = ys[from], z = zs[from];
+
+        for (int i = from + 1; i < length; i++) {
+            byte move = moveCodes[i - 1];
+            x += DX[move];
+            y += DY[move];
+            z += DZ[move];
+            xs[i] = x;
+            ys[i] = y;
+            zs[i] = z;
+        }
+        aminoAcids = null;
+    }
+
+    // Ein Durchlauf über die Kette: jeder Rest wird auf das Gitter gelegt, Überlappungen
+    // zählen die Reste, die schon auf der Zelle liegen, H-H-Kontakte werden nur über die
+    // 4 bzw. 6 Gitternachbarn zu bereits gelegten Resten gesucht. Damit O(n) statt O(n²).
+    private void evaluate() {
+        if (evaluated) {
+            return;
+        }
+        EVALUATIONS.increment();
+        OccupancyTable table = OccupancyTable.forCurrentThread(length);
+        int energy = 0;
+        int overlaps = 0;
+        for (int i = 0; i < length; i++) {
+            int x = xs[i];
+            int y = ys[i];
+            int z = zs[i];
+            overlaps += table.insert(x, y, z, i);
+            if (hydrophobic[i] == 0) {
+                continue;
+            }
+            for (int d = 0; d < directions; d++) {
+                for (int j = table.first(x + DX[d], y + DY[d], z + DZ[d]); j >= 0; j = table.next(j)) {
+                    // Sequenznachbarn zählen nicht
+                    if (j != i - 1 && hydrophobic[j] == 1) {
+                        energy--;
+                    }
+                }
+            }
+        }
+        this.energy = energy;
+        this.overlaps = overlaps;
+        this.fitness = Math.abs(energy) * Math.pow(0.1, overlaps);
+        this.evaluated = true;
+    }
+
+    // Übernimmt eine anderswo gerechnete Bewertung derselben Faltung (oder einer Drehung/Spiegelung davon)
+    void setEvaluation(int energy, int overlaps) {
+        this.energy = energy;
+        this.overlaps = overlaps;
+        this.fitness = Math.abs(energy) * Math.pow(0.1, overlaps);
+        this.evaluated = true;
+    }
+
+    // Verwirft die zwischengespeicherte Bewertung, z.B. für Benchmarks
+    void invalidate() {
+        evaluated = false;
+    }
+
+    // Ob Energie, Überlappungen und Fitness schon berechnet sind
+    boolean isEvaluated() {
+        return evaluated;
+    }
+
+    // Anzahl der tatsächlich durchgeführten Bewertungen über alle Modelle
+    public static long evaluationCount() {
+        return EVALUATIONS.sum();
+    }
+
+    public int calculateEnergy() {
+        evaluate();
+        return energy;
+    }
+
+    public int countOverlaps() {
+        evaluate();
+        return overlaps;
+    }
+
+    public double calculateFitnessScore() {
+        evaluate();
+        return fitness;
+    }
+
+    // Markiert alle Reste, die sich eine Gitterzelle mit einem anderen Rest teilen
+    public boolean[] getOverlapMask() {
+        OccupancyTable table = OccupancyTable.forCurrentThread(length);
+        for (int i = 0; i < length; i++) {
+            table.insert(xs[i], ys[i], zs[i], i);
+        }
+        boolean[] overlapping = new boolean[length];
+        for (int i = 0; i < length; i++) {
+            overlapping[i] = table.count(xs[i], ys[i], zs[i]) > 1;
+        }
+        return overlapping;
+    }
+
+    public String getMoves() {
+        if (moves == null) {
+            char[] chars = new char[moveCodes.length];
+            for (int i = 0; i < chars.length; i++) {
+                chars[i] = MOVE_CHARS[moveCodes[i]];
+            }
+            moves = new String(chars);
+        }
+        return moves;
+    }
+
+    public String getSequence() {
+        return sequence;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    // Koordinaten relativ zum ersten Rest; intern kann die Kette nach setMoveCodes() verschoben liegen
+    public int getX(int index) {
+        return xs[index] - xs[0];
+    }
+
+    public int getY(int index) {
+        return ys[index] - ys[0];
+    }
+
+    public int getZ(int index) {
+        return zs[index] - zs[0];
+    }
+
+    public Lattice lattice() {
+        return lattice;
+    }
+
+    public boolean isHydrophobic(int index) {
+        return hydrophobic[index] == 1;
+    }
+
+    // Kompatibilitätssicht für printGrid() und die Bildausgabe (auf dem kubischen Gitter die
+    // Projektion auf die x-y-Ebene), wird erst beim ersten Zugriff aufgebaut
+    public Map<Integer, AminoAcid> getAminoAcids() {
+        if (aminoAcids == null) {
+            Map<Integer, AminoAcid> view = new HashMap<>();
+            for (int i = 0; i < length; i++) {
+                view.put(i, new AminoAcid(i, sequence.charAt(i), getX(i), getY(i)));
+            }
+            aminoAcids = view;
+        }
+        return aminoAcids;
+    }
+
+    public void setMoves(String moves) {
+        for (int i = 0; i < moveCodes.length; i++) {
+            moveCodes[i] = lattice.encodeMove(moves.charAt(i));
+        }
+        this.moves = moves;
+        genome = null;
+        evaluated = false;
+        occupancyValid = false;
+        calculatePositions();
+    }
+
+    // Das Genom darf nicht verändert werden, für Änderungen copy() und setGenome() benutzen
+    public Genome getGenome() {
+        Genome current = genome;
+        if (current == null) {
+            current = Genome.fromMoveCodes(moveCodes, lattice);
+            genome = current;
+        }
+        return current;
+    }
+
+    // Übernimmt ein geändertes Genom, bewertete Modelle rechnen wie bei setMoveCodes() nur die Änderungen nach
+    public void setGenome(Genome newGenome) {
+        if (newGenome.lattice() != lattice) {
+            throw new IllegalArgumentException("Genom für " + newGenome.lattice() + " passt nicht zum Gitter " + lattice);
+        }
+        byte[] codes = new byte[moveCodes.length];
+        newGenome.decode(codes);
+        setMoveCodes(codes);
+        genome = newGenome;
+    }
+
+    public byte getMoveCode(int index) {
+        return moveCodes[index];
+    }
+
+    // Kopie der kodierten Züge, z.B. zum Mutieren und anschließendem setMoveCodes()
+    public byte[] getMoveCodes() {
+        return moveCodes.clone();
+    }
+
+    // Übernimmt geänderte Züge. Die geänderten Züge zerlegen die Kette in starre Stücke, die
+    // gegeneinander verschoben werden. Ist das Modell schon bewertet, bleibt das größte Stück
+    // liegen, nur die Reste der übrigen Stücke werden von der modelleigenen Belegungstabelle
+    // genommen und verschoben wieder eingesetzt. Überlappungen folgen dabei aus den Zellbelegungen,
+    // H-H-Kontakte aus den Gitternachbarn der verschobenen H-Reste. Mehrere Änderungen werden in
+    // einem Durchlauf verrechnet.
+    public void setMoveCodes(byte[] codes) {
+        int first = -1;
+        for (int i = 0; i < moveCodes.length; i++) {
+            if (codes[i] != moveCodes[i]) {
+                first = i;
+                break;
+            }
+        }
+        if (first < 0) {
+            return;
+        }
+        moves = null;
+        genome = null;
+        aminoAcids = null;
+        if (!evaluated) {
+            // Noch nicht bewertet: nur die Positionen ab dem ersten geänderten Zug nachziehen
+            System.arraycopy(codes, first, moveCodes, first, moveCodes.length - first);
+            occupancyValid = false;
+            calculatePositions(first);
+            return;
+        }
+        if (!occupancyValid || occupancy.crowded()) {
+            buildOccupancy();
+        }
+
+        // Stücke nummerieren und das größte als Anker bestimmen
+        int segment = 0, start = 0, anchor = 0, anchorSize = first + 1;
+        for (int r = first + 1; r < length; r++) {
+            if (codes[r - 1] != moveCodes[r - 1]) {
+                if (r - start > anchorSize) {
+                    anchor = segment;
+                    anchorSize = r - start;
+                }
+                segment++;
+                start = r;
+            }
+            segments[r] = segment;
+        }
+        if (length - start > anchorSize) {
+            anchor = segment;
+        }
+        if (anchor != 0) {
+            Arrays.fill(segments, 0, first + 1, 0);
+        }
+
+        // Verschiebung jedes Stücks gegenüber der alten Lage
+        int[] shiftX = shiftScratch(0, segment + 1);
+        int[] shiftY = shiftScratch(1, segment + 1);
+        int[] shiftZ = shiftScratch(2, segment + 1);
+        int dx = 0, dy = 0, dz = 0;
+        shiftX[0] = 0;
+        shiftY[0] = 0;
+        shiftZ[0] = 0;
+        for (int r = first + 1; r < length; r++) {
+            if (codes[r - 1] != moveCodes[r - 1]) {
+                dx += DX[codes[r - 1]] - DX[moveCodes[r - 1]];
+                dy += DY[codes[r - 1]] - DY[moveCodes[r - 1]];
+                dz += DZ[codes[r - 1]] - DZ[moveCodes[r - 1]];
+                shiftX[segments[r]] = dx;
+                shiftY[segments[r]] = dy;
+                shiftZ[segments[r]] = dz;
+            }
+        }
+        int anchorX = shiftX[anchor], anchorY = shiftY[anchor], anchorZ = shiftZ[anchor];
+        System.arraycopy(codes, first, moveCodes, first, moveCodes.length - first);
+
+        // Jedes Paar wird beim Abnehmen des ersten und beim Einsetzen des zweiten Rests genau
+        // einmal erfasst, Paare innerhalb eines verschobenen Stücks heben sich dabei auf
+        int energy = this.energy;
+        int overlaps = this.overlaps;
+        int from = anchor == 0 ? first + 1 : 0;
+        for (int t = from; t < length; t++) {
+            if (segments[t] != anchor) {
+                if (hydrophobic[t] == 1) {
+                    energy += contactsOnOccupancy(t);
+                }
+                overlaps -= occupancy.remove(xs[t], ys[t], zs[t], t);
+            }
+        }
+        for (int t = from; t < length; t++) {
+            int s = segments[t];
+            if (s != anchor) {
+                xs[t] += shiftX[s] - anchorX;
+                ys[t] += shiftY[s] - anchorY;
+                zs[t] += shiftZ[s] - anchorZ;
+                overlaps += occupancy.insert(xs[t], ys[t], zs[t], t);
+                if (hydrophobic[t] == 1) {
+                    energy -= contactsOnOccupancy(t);
+                }
+            }
+        }
+
+        EVALUATIONS.increment();
+        this.energy = energy;
+        this.overlaps = overlaps;
+        fitness = Math.abs(energy) * Math.pow(0.1, overlaps);
+        evaluated = true;
+    }
+
+    private int[] shiftScratch(int axis, int size) {
+        int[] shift = shifts[axis];
+        if (shift == null || shift.length < size) {
+            shift = new int[Math.max(size, 8)];
+            shifts[axis] = shift;
+        }
+        return shift;
+    }
+
+    private void buildOccupancy() {
+        if (occupancy == null) {
+            occupancy = new OccupancyTable(length);
+            segments = new int[length];
+        } else {
+            occupancy.clear();
+        }
+        for (int i = 0; i < length; i++) {
+            occupancy.insert(xs[i], ys[i], zs[i], i);
+        }
+        occupancyValid = true;
+    }
+
+    // H-H-Kontakte des H-Rests t mit allen H-Resten, die gerade auf der Belegungstabelle liegen
+    private int contactsOnOccupancy(int t) {
+        int contacts = 0;
+        int x = xs[t];
+        int y = ys[t];
+        int z = zs[t];
+        for (int d = 0; d < directions; d++) {
+            for (int j = occupancy.first(x + DX[d], y + DY[d], z + DZ[d]); j >= 0; j = occupancy.next(j)) {
+                if (hydrophobic[j] == 1 && Math.abs(j - t) != 1) {
+                    contacts++;
+                }
+            }
+        }
+        return contacts;
+    }
+
+    public void printGrid() {
+        // Bestimme die minimalen und maximalen x- und y-Werte
+        int minX = Integer.MAX_VALUE, maxX = Integer.MIN_VALUE;
+        int minY = Integer.MAX_VALUE, maxY = Integer.MIN_VALUE;
+
+        Map<Integer, AminoAcid> aminoAcids = getAminoAcids();
+        for (AminoAcid acid : aminoAcids.values()) {
+            if (acid.getX() < minX) minX = acid.getX();
+            if (acid.getX() > maxX) maxX = acid.getX();
+            if (acid.getY() < minY) minY = acid.getY();
+            if (acid.getY() > maxY) maxY = acid.getY();
+        }
+
+        // Initialisiere das Grid
+        int width = (maxX - minX + 1) * 2 - 1;
+        int height = (maxY - minY + 1) * 2 - 1;
+        String[][] grid = new String[height][width];
+
+        // Fülle das Grid mit Leerzeichen
+        for (int i = 0; i < height; i++) {
+            for (int j = 0; j < width; j++) {
+                grid[i][j] = "   ";
+            }
+        }
+
+        // Fülle das Grid mit Aminosäuren und IDs
+        for (int i = 0; i < sequence.length(); i++) {
+            AminoAcid acid = aminoAcids.get(i);
+            int x = (acid.getX() - minX) * 2;
+            int y = (acid.getY() - minY) * 2;
+            grid[y][x] = String.format("%c%02d", acid.getType(), acid.getId());
+
+            // Zeichne Verbindung zum Vorgänger
+            if (i > 0) {
+                AminoAcid prevAcid = aminoAcids.get(i - 1);
+                int prevX = (prevAcid.getX() - minX) * 2;
+                int prevY = (prevAcid.getY() - minY) * 2;
+
+                if (x == prevX) {
+                    // Vertikale Verbindung
+                    int startY = Math.min(y, prevY) + 1;
+                    int endY = Math.max(y, prevY);
+                    for (int j = startY; j < endY; j++) {
+                        grid[j][x] = " | ";
+                    }
+                } else if (y == prevY) {
+                    // Horizontale Verbindung
+                    int startX = Math.min(x, prevX) + 1;
+                    int endX = Math.max(x, prevX);
+                    for (int j = startX; j < endX; j++) {
+                        grid[y][j] = "---";
+                    }
+                }
+            }
+        }
+
+        // Drucke das Grid
+        for (int i = grid.length - 1; i >= 0; i--) {  // Von oben nach unten drucken
+            for (String item : grid[i]) {
+                System.out.print(item + " ");
+            }
+            System.out.println();
+        }
+    }
+
+    public static void main(String[] args) {
+        //String sequence = "HPHHPPPH";
+        //String moves = "LDRDLLDDRDLLUULURUR";
+
+        String sequence = "HPHPPHHPHPPHPHHPPHPH";
+        String moves = "LDRDLLDDRDLLUULURUR";
+
+        HPModel model = new HPModel(sequence, moves);
+        System.out.println("Minimale Energie: " + model.calculateEnergy());
+        System.out.println("Anzahl der Überlappungen: " + model.countOverlaps());
+        System.out.println("Fitness-Score: " + model.calculateFitnessScore());
+        
+    
+        model.printGrid();
+    }
+}
\ No newline at end of file
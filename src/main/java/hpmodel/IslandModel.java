@@ -0,0 +1,310 @@
+package hpmodel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Island model: several independent populations, each evolved by one task with its own
+// random generator and its own adaptive mutation rate. At most `threads` islands evolve at once;
+// with fewer threads than islands they take turns, migrationInterval generations at a time, so
+// every island still sees its neighbours' migrants. Every MIGRATION_INTERVAL generations an
+// island sends its best individuals into the inboxes of its neighbours; the HPModel objects are
+// shared, not copied, because individuals are never modified after breeding. Inboxes are
+// lock-free queues that are drained at the start of a generation, so islands never wait for
+// each other. A migrant is stamped with the generation it was sent in and only accepted once
+// the receiving island has reached that generation, so a fast island cannot flood a slow one
+// with individuals from its future.
+final class IslandModel {
+    static final int DEFAULT_MIGRATION_INTERVAL = 25;
+    private static final int MIGRANTS = 2;
+
+    // Who sends migrants to whom
+    enum Topology {
+        RING,            // island i -> island i + 1
+        FULLY_CONNECTED, // island i -> every other island
+        RANDOM           // island i -> one random other island per migration
+    }
+
+    private final String sequence;
+    private final int islandSize;
+    private final int migrationInterval;
+    private final Topology topology;
+    private final GeneticAlgorithm.SelectionMode selection;
+    private final Lattice lattice;
+    private final Genome.Encoding encoding;
+    private final GeneticAlgorithm.Feasibility feasibility;
+    private final Island[] islands;
+
+    IslandModel(String sequence, int islandCount, int islandSize, int migrationInterval, Topology topology,
+                GeneticAlgorithm.SelectionMode selection, Lattice lattice, Genome.Encoding encoding,
+                GeneticAlgorithm.Feasibility feasibility, long seed) {
+        if (islandCount < 1 || islandSize < 2 || islandSize % 2 != 0 || migrationInterval < 1) {
+            throw new IllegalArgumentException("Invalid island configuration: " + islandCount + " islands of "
+                    + islandSize + ", migration every " + migrationInterval + " generations");
+        }
+        this.sequence = sequence;
+        this.islandSize = islandSize;
+        this.migrationInterval = migrationInterval;
+        this.topology = topology;
+        this.selection = selection;
+        this.lattice = lattice;
+        this.encoding = encoding;
+        this.feasibility = feasibility;
+
+        SplittableRandom masterRandom = new SplittableRandom(seed);
+        this.islands = new Island[islandCount];
+        for (int i = 0; i < islandCount; i++) {
+            islands[i] = new Island(i, masterRandom.split());
+        }
+    }
+
+    // A migrant together with the generation of the sending island
+    private record Migrant(HPModel model, int generation) {
+    }
+
+    // Evolve all islands for the given number of generations, one task per island on at most threads threads
+    HPModel run(int generations, int threads) {
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, islands.length)), runnable -> {
+            Thread thread = new Thread(runnable, "island-" + threadCount.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        // With a thread per island each task runs all generations, otherwise the islands advance in slices
+        int slice = threads >= islands.length ? generations : migrationInterval;
+        List<Callable<Void>> tasks = new ArrayList<>(islands.length);
+        try {
+            for (int from = 0; from < generations; from += slice) {
+                int to = Math.min(generations, from + slice);
+                int first = from;
+                tasks.clear();
+                for (Island island : islands) {
+                    tasks.add(() -> {
+                        island.evolve(first, to, generations);
+                        return null;
+                    });
+                }
+                GeneticAlgorithm.runAll(executor, tasks);
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        HPModel best = null;
+        for (Island island : islands) {
+            if (best == null || island.best.calculateFitnessScore() > best.calculateFitnessScore()) {
+                best = island.best;
+            }
+        }
+        return best;
+    }
+
+    // Same columns as the generational log, aggregated over all islands per generation
+    void writeLog(MetricsSink metrics, int generations) {
+        long evaluations = 0;
+        for (int generation = 0; generation < generations; generation++) {
+            for (Island island : islands) {
+                evaluations += island.evaluations[generation];
+            }
+            if (!metrics.sampled(generation, generations - 1)) {
+                continue;
+            }
+            double average = 0.0, best = 0.0, mutationRate = 0.0, infeasible = 0.0;
+            int bestIsland = 0;
+            for (int i = 0; i < islands.length; i++) {
+                Island island = islands[i];
+                average += island.averageFitness[generation];
+                best = Math.max(best, island.bestFitness[generation]);
+                mutationRate += island.mutationRates[generation];
+                infeasible += island.infeasibleFractions[generation];
+                if (island.bestOverallFitness[generation] > islands[bestIsland].bestOverallFitness[generation]) {
+                    bestIsland = i;
+                }
+            }
+            metrics.record(generation,
+                    average / islands.length,
+                    best,
+                    islands[bestIsland].bestOverallFitness[generation],
+                    islands[bestIsland].bestEnergy[generation],
+                    islands[bestIsland].bestOverlaps[generation],
+                    mutationRate / islands.length,
+                    evaluations,
+                    infeasible / islands.length,
+                    0.0,
+                    0);
+            evaluations = 0;
+        }
+    }
+
+    void printSummary() {
+        for (Island island : islands) {
+            System.out.printf(Locale.ROOT, "Island %d: energy %d, overlaps %d, migrants received %d%n",
+                    island.id, island.best.calculateEnergy(), island.best.countOverlaps(), island.received);
+        }
+    }
+
+    private final class Island {
+        final int id;
+        final SplittableRandom random;
+        final ConcurrentLinkedQueue<Migrant> inbox = new ConcurrentLinkedQueue<>();
+        final List<Migrant> pending = new ArrayList<>(); // received, but sent in a later generation
+        HPModel best;
+        int received;
+
+        // Verlauf pro Generation für das Log
+        double[] averageFitness, bestFitness, bestOverallFitness, mutationRates, infeasibleFractions;
+        int[] bestEnergy, bestOverlaps;
+        int[] evaluations; // Individuen, die in der Generation erst bewertet wurden, wie im generationellen GA
+
+        Island(int id, SplittableRandom random) {
+            this.id = id;
+            this.random = random;
+        }
+
+        // Zustand zwischen zwei Abschnitten von evolve
+        HPModel[] population, newGeneration;
+        RouletteWheel wheel;
+        int[] parentIndices;
+        double mutationRate, previousBestFitness;
+
+        // Generationen from bis to - 1 von insgesamt generations
+        void evolve(int from, int to, int generations) {
+            if (from == 0) {
+                averageFitness = new double[generations];
+                bestFitness = new double[generations];
+                bestOverallFitness = new double[generations];
+                mutationRates = new double[generations];
+                infeasibleFractions = new double[generations];
+                bestEnergy = new int[generations];
+                bestOverlaps = new int[generations];
+                evaluations = new int[generations];
+
+                population = GeneticAlgorithm.initializePopulation(sequence, islandSize, lattice, encoding, feasibility, random);
+                newGeneration = new HPModel[islandSize];
+                wheel = new RouletteWheel(islandSize);
+                parentIndices = new int[islandSize];
+                mutationRate = GeneticAlgorithm.INITIAL_MUTATION_RATE;
+                previousBestFitness = Double.NEGATIVE_INFINITY;
+            }
+
+            for (int generation = from; generation < to; generation++) {
+                acceptMigrants(population, generation);
+
+                HPModel bestInGeneration = population[0];
+                double totalFitness = 0.0;
+                int infeasible = 0;
+                int evaluated = 0;
+                for (HPModel model : population) {
+                    if (!model.isEvaluated()) {
+                        evaluated++;
+                    }
+                    if (model.calculateFitnessScore() > bestInGeneration.calculateFitnessScore()) {
+                        bestInGeneration = model;
+                    }
+                    totalFitness += model.calculateFitnessScore();
+                    if (model.countOverlaps() > 0) {
+                        infeasible++;
+                    }
+                }
+                if (best == null || bestInGeneration.calculateFitnessScore() > best.calculateFitnessScore()) {
+                    best = bestInGeneration;
+                }
+
+                averageFitness[generation] = totalFitness / islandSize;
+                bestFitness[generation] = bestInGeneration.calculateFitnessScore();
+                bestOverallFitness[generation] = best.calculateFitnessScore();
+                bestEnergy[generation] = best.calculateEnergy();
+                bestOverlaps[generation] = best.countOverlaps();
+                mutationRates[generation] = mutationRate;
+                infeasibleFractions[generation] = (double) infeasible / islandSize;
+                evaluations[generation] = evaluated;
+
+                if (generation > 0 && generation % migrationInterval == 0) {
+                    emigrate(population, generation);
+                }
+
+                mutationRate = GeneticAlgorithm.adaptMutationRate(mutationRate, bestInGeneration.calculateFitnessScore(), previousBestFitness);
+                previousBestFitness = bestInGeneration.calculateFitnessScore();
+
+                GeneticAlgorithm.prepareSelection(population, selection, wheel, parentIndices, random);
+                GeneticAlgorithm.breed(population, newGeneration, 0, islandSize / 2, selection, wheel, parentIndices,
+                        random, mutationRate, sequence, feasibility, null, 0);
+
+                HPModel[] swap = population;
+                population = newGeneration;
+                newGeneration = swap;
+            }
+        }
+
+        // Individuals in a population are never modified after breeding, so migrants can be shared
+        private void emigrate(HPModel[] population, int generation) {
+            List<Migrant> migrants = new ArrayList<>(MIGRANTS);
+            for (HPModel model : bestOf(population, MIGRANTS)) {
+                migrants.add(new Migrant(model, generation));
+            }
+            switch (topology) {
+                case RING:
+                    islands[(id + 1) % islands.length].inbox.addAll(migrants);
+                    break;
+                case FULLY_CONNECTED:
+                    for (Island island : islands) {
+                        if (island != this) {
+                            island.inbox.addAll(migrants);
+                        }
+                    }
+                    break;
+                case RANDOM:
+                    if (islands.length > 1) {
+                        int target = random.nextInt(islands.length - 1);
+                        islands[target >= id ? target + 1 : target].inbox.addAll(migrants);
+                    }
+                    break;
+            }
+        }
+
+        // Each migrant replaces the currently worst individual, if it is better
+        private void acceptMigrants(HPModel[] population, int generation) {
+            Migrant received;
+            while ((received = inbox.poll()) != null) {
+                pending.add(received);
+            }
+            for (int m = 0; m < pending.size(); m++) {
+                if (pending.get(m).generation() > generation) {
+                    continue;
+                }
+                HPModel migrant = pending.remove(m--).model();
+                int worst = 0;
+                for (int i = 1; i < population.length; i++) {
+                    if (population[i].calculateFitnessScore() < population[worst].calculateFitnessScore()) {
+                        worst = i;
+                    }
+                }
+                if (migrant != population[worst] && migrant.calculateFitnessScore() > population[worst].calculateFitnessScore()) {
+                    population[worst] = migrant;
+                    this.received++;
+                }
+            }
+        }
+    }
+
+    // The count best individuals, best first
+    private static List<HPModel> bestOf(HPModel[] population, int count) {
+        List<HPModel> best = new ArrayList<>(count);
+        for (int n = 0; n < count && n < population.length; n++) {
+            HPModel candidate = null;
+            for (HPModel model : population) {
+                if (!best.contains(model) && (candidate == null || model.calculateFitnessScore() > candidate.calculateFitnessScore())) {
+                    candidate = model;
+                }
+            }
+            best.add(candidate);
+        }
+        return best;
+    }
+}
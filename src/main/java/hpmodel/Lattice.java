@@ -0,0 +1,51 @@
+package hpmodel;
+
+// Gitter, auf dem die Kette gefaltet wird. Beide Gitter benutzen dieselben Zugcodes, das kubische
+// Gitter hat zusätzlich F/B entlang z: R=0, L=1, U=2, D=3, F=4, B=5. Damit gilt für beide:
+// Gegenrichtung = Code ^ 1, Achse = Code >> 1, und ein 2D-Zug ist auch ein gültiger 3D-Zug.
+public enum Lattice {
+    SQUARE(2),
+    CUBIC(3);
+
+    static final int[] DX = {1, -1, 0, 0, 0, 0};
+    static final int[] DY = {0, 0, 1, -1, 0, 0};
+    static final int[] DZ = {0, 0, 0, 0, 1, -1};
+    static final char[] MOVE_CHARS = {'R', 'L', 'U', 'D', 'F', 'B'};
+
+    private final int dimensions;
+
+    Lattice(int dimensions) {
+        this.dimensions = dimensions;
+    }
+
+    public int dimensions() {
+        return dimensions;
+    }
+
+    // Anzahl der Richtungen (4 bzw. 6), gültige Zugcodes sind 0 bis directions() - 1
+    public int directions() {
+        return 2 * dimensions;
+    }
+
+    // Bits pro Zug im Genom: 2 bzw. 4, eine Zweierpotenz, damit kein Zug über zwei Wörter reicht
+    int bitsPerMove() {
+        return dimensions == 2 ? 2 : 4;
+    }
+
+    byte encodeMove(char move) {
+        byte code;
+        switch (move) {
+            case 'R': code = 0; break;
+            case 'L': code = 1; break;
+            case 'U': code = 2; break;
+            case 'D': code = 3; break;
+            case 'F': code = 4; break;
+            case 'B': code = 5; break;
+            default: throw new IllegalArgumentException("Ungültiger Zug: " + move);
+        }
+        if (code >= directions()) {
+            throw new IllegalArgumentException("Zug " + move + " gibt es auf dem Gitter " + this + " nicht");
+        }
+        return code;
+    }
+}
@@ -0,0 +1,78 @@
+package hpmodel;
+
+import java.util.SplittableRandom;
+
+// Bergsteigen für die memetische Stufe des GA. Nachbarn einer Faltung sind die Punktmutation wie in
+// applyMutation (das Kettenende dreht sich um einen Rest) und der Tausch zweier Züge im Abstand 1 oder 2
+// (eine Ecke bzw. Kurbelwelle klappt um, der Rest der Kette bleibt liegen). Gleich gute Nachbarn werden
+// übernommen, damit die Suche über Plateaus kommt. Jeder Nachbar wird inkrementell über setMoveCodes()
+// bewertet, ein abgelehnter auf demselben Weg zurückgenommen.
+final class LocalSearch {
+    private LocalSearch() {
+    }
+
+    // Sucht mit höchstens steps Versuchen auf einer Kopie von population[index] und ersetzt das Individuum,
+    // wenn die Kopie besser ist. Mit feasibleOnly werden nur überlappungsfreie Nachbarn übernommen.
+    // Liefert die Zahl der bewerteten Nachbarn.
+    static long improve(HPModel[] population, int index, int steps, String SEQUENCE, boolean feasibleOnly,
+                        SplittableRandom random) {
+        HPModel original = population[index];
+        HPModel model = new HPModel(SEQUENCE, original.getGenome());
+        model.setEvaluation(original.calculateEnergy(), original.countOverlaps());
+        byte[] codes = model.getMoveCodes();
+        if (codes.length < 2) {
+            return 0;
+        }
+        int directions = model.lattice().directions();
+        double fitness = model.calculateFitnessScore();
+        long evaluations = 0;
+
+        for (int step = 0; step < steps; step++) {
+            int i = random.nextInt(codes.length);
+            int j = i;
+            byte previous = codes[i];
+            if (random.nextBoolean()) {
+                int move = random.nextInt(directions);
+                if (move == previous) {
+                    continue;
+                }
+                codes[i] = (byte) move;
+            } else {
+                j = i + 1 + random.nextInt(2);
+                if (j >= codes.length || codes[j] == previous) {
+                    continue;
+                }
+                codes[i] = codes[j];
+                codes[j] = previous;
+            }
+            // Ein direkter Rückschritt überlappt immer, und relativ ist er gar nicht darstellbar
+            if (backstep(codes, i) || backstep(codes, i + 1) || backstep(codes, j) || backstep(codes, j + 1)) {
+                codes[j] = codes[i];
+                codes[i] = previous;
+                continue;
+            }
+
+            model.setMoveCodes(codes);
+            evaluations++;
+            if (model.calculateFitnessScore() >= fitness && (!feasibleOnly || model.countOverlaps() == 0)) {
+                fitness = model.calculateFitnessScore();
+            } else {
+                codes[j] = codes[i];
+                codes[i] = previous;
+                model.setMoveCodes(codes);
+            }
+        }
+
+        if (fitness > original.calculateFitnessScore()) {
+            HPModel improved = new HPModel(SEQUENCE, GeneticAlgorithm.encodeWalk(codes, original.getGenome()));
+            improved.setEvaluation(model.calculateEnergy(), model.countOverlaps());
+            population[index] = improved;
+        }
+        return evaluations;
+    }
+
+    // Zug k läuft direkt in Zug k - 1 zurück
+    private static boolean backstep(byte[] codes, int k) {
+        return k > 0 && k < codes.length && codes[k] == (codes[k - 1] ^ 1);
+    }
+}
@@ -0,0 +1,320 @@
+package hpmodel;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Formatter;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// Schreibt die Werte pro Generation im Hintergrund. Die Generationsschleife legt nur primitive
+// Werte in einem Ringpuffer ab (ein Erzeuger, ein Verbraucher), ein eigener Thread formatiert sie
+// und schreibt sie gepuffert in die Datei. Ist der Puffer voll, wartet der Erzeuger, es geht also
+// nichts verloren. Mit interval > 1 wird nur jede interval-te Generation (und die letzte) geloggt.
+// Vor einem Checkpoint bringt sync() alle bisherigen Einträge auf die Platte, damit ein fortgesetzter
+// Lauf im Log keine Generation vor dem Checkpoint vermisst.
+final class MetricsSink implements AutoCloseable {
+    enum Format {
+        CSV,   // log.csv, Spalten wie bisher (für graph.py)
+        BINARY // log.bin, Kopf "HPLG" + Version, dann 76 Byte pro Generation (big endian)
+    }
+
+    static final String BINARY_FILE = "log.bin";
+    static final String CSV_HEADER = "Generation;AverageFitness;BestFitness;BestOverallFitness;HydrophobicContacts;Overlaps;MutationRate;Evaluations;InfeasibleFraction;CacheHitRate;CacheEvictions\n";
+    private static final int MAGIC = 0x48504C47; // "HPLG"
+    private static final int VERSION = 3;
+    private static final int HEADER_BYTES = 8;
+    private static final int RECORD_BYTES = 76;
+    private static final int CAPACITY = 1024; // Zweierpotenz
+    private static final long IDLE_NANOS = 1_000_000;
+
+    private final Format format;
+    private final int interval;
+    private final boolean printProgress;
+    private final FileOutputStream stream;
+    private final BufferedWriter csv;
+    private final Formatter csvFormatter;
+    private final DataOutputStream binary;
+
+    // Ringpuffer, Eintrag i liegt an Position i & (CAPACITY - 1)
+    private final int[] generations = new int[CAPACITY];
+    private final double[] averageFitness = new double[CAPACITY];
+    private final double[] bestFitness = new double[CAPACITY];
+    private final double[] bestOverallFitness = new double[CAPACITY];
+    private final int[] contacts = new int[CAPACITY];
+    private final int[] overlaps = new int[CAPACITY];
+    private final double[] mutationRates = new double[CAPACITY];
+    private final long[] evaluations = new long[CAPACITY];
+    private final double[] infeasibleFractions = new double[CAPACITY];
+    private final double[] cacheHitRates = new double[CAPACITY];
+    private final long[] cacheEvictions = new long[CAPACITY];
+    private final AtomicLong head = new AtomicLong(); // nächster Eintrag für den Schreiber
+    private final AtomicLong tail = new AtomicLong(); // nächster freier Eintrag für die Schleife
+
+    private final Thread writer;
+    private volatile long syncRequested; // Einträge vor diesem sollen auf der Platte sein
+    private volatile long synced;        // Einträge vor diesem sind es
+    private volatile boolean closed;
+    private volatile IOException failure;
+
+    private MetricsSink(Format format, File file, int interval, boolean printProgress, boolean append) throws IOException {
+        if (interval < 1) {
+            throw new IllegalArgumentException("Invalid log interval: " + interval);
+        }
+        this.format = format;
+        this.interval = interval;
+        this.printProgress = printProgress;
+        this.stream = new FileOutputStream(file, append);
+        if (format == Format.CSV) {
+            csv = new BufferedWriter(new OutputStreamWriter(stream), 1 << 16);
+            csvFormatter = new Formatter(csv, Locale.GERMAN);
+            binary = null;
+            if (!append) {
+                csv.write(CSV_HEADER);
+            }
+        } else {
+            csv = null;
+            csvFormatter = null;
+            binary = new DataOutputStream(new BufferedOutputStream(stream, 1 << 16));
+            if (!append) {
+                binary.writeInt(MAGIC);
+                binary.writeInt(VERSION);
+            }
+        }
+        writer = new Thread(this::drain, "metrics-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    // log.csv or log.bin in the given directory
+    static MetricsSink open(File directory, Format format, int interval, boolean printProgress) throws IOException {
+        return new MetricsSink(format, file(directory, format), interval, printProgress, false);
+    }
+
+    // Setzt das Log eines fortgesetzten Laufs fort: alles ab generation wird abgeschnitten, weil der
+    // Lauf diese Generationen noch einmal loggt. Fehlt das Log oder endet es vor der letzten geloggten
+    // Generation vor generation, hätte das fortgesetzte Log eine Lücke, deshalb ist das ein Fehler
+    static MetricsSink resume(File directory, Format format, int interval, boolean printProgress, int generation) throws IOException {
+        File file = file(directory, format);
+        if (!file.exists()) {
+            throw new IOException("Log of the checkpointed run not found, cannot resume: " + file);
+        }
+        int expected = generation == 0 ? -1 : (generation - 1) / interval * interval;
+        long length = format == Format.CSV
+                ? csvLengthBefore(file, generation, expected) : binaryLengthBefore(file, generation, expected);
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+            channel.truncate(length);
+        }
+        return new MetricsSink(format, file, interval, printProgress, true);
+    }
+
+    private static File file(File directory, Format format) {
+        return new File(directory, format == Format.CSV ? GeneticAlgorithm.CSV_FILE : BINARY_FILE);
+    }
+
+    // Bytes von Kopfzeile und allen Zeilen vor generation; die letzte davon muss expected sein
+    private static long csvLengthBefore(File file, int generation, int expected) throws IOException {
+        String content = Files.readString(file.toPath(), StandardCharsets.ISO_8859_1);
+        if (!content.startsWith(CSV_HEADER)) {
+            throw new IOException("Log has different columns, cannot resume: " + file);
+        }
+        int end = CSV_HEADER.length();
+        int last = -1;
+        while (end < content.length()) {
+            int next = content.indexOf('\n', end);
+            if (next < 0) {
+                break; // eine halb geschriebene letzte Zeile fällt weg
+            }
+            int logged = Integer.parseInt(content.substring(end, content.indexOf(';', end)));
+            if (logged >= generation) {
+                break;
+            }
+            last = logged;
+            end = next + 1;
+        }
+        checkLast(file, last, expected);
+        return end;
+    }
+
+    // Bytes von Kopf und allen vollständigen Einträgen vor generation; der letzte davon muss expected sein
+    private static long binaryLengthBefore(File file, int generation, int expected) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            if (channel.read(header, 0) != HEADER_BYTES || header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+                throw new IOException("Log has a different format, cannot resume: " + file);
+            }
+            ByteBuffer record = ByteBuffer.allocate(Integer.BYTES);
+            long end = HEADER_BYTES;
+            int last = -1;
+            while (end + RECORD_BYTES <= channel.size()) {
+                record.clear();
+                channel.read(record, end);
+                if (record.getInt(0) >= generation) {
+                    break;
+                }
+                last = record.getInt(0);
+                end += RECORD_BYTES;
+            }
+            checkLast(file, last, expected);
+            return end;
+        }
+    }
+
+    private static void checkLast(File file, int last, int expected) throws IOException {
+        if (last != expected) {
+            throw new IOException("Log ends at generation " + last + " but the checkpoint expects generation "
+                    + expected + ", cannot resume: " + file);
+        }
+    }
+
+    // Whether this generation is logged at all, so the caller can skip collecting the values
+    boolean sampled(int generation, int lastGeneration) {
+        return generation % interval == 0 || generation == lastGeneration;
+    }
+
+    void record(int generation, double average, double best, double bestOverall, int hydrophobicContacts,
+                int overlapCount, double mutationRate, long evaluationCount, double infeasibleFraction,
+                double cacheHitRate, long cacheEvictionCount) {
+        long t = tail.get();
+        while (t - head.get() >= CAPACITY) {
+            if (failure != null) {
+                return; // Schreiber ist ausgefallen, close() meldet den Fehler
+            }
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(IDLE_NANOS / 10);
+        }
+        int i = (int) (t & (CAPACITY - 1));
+        generations[i] = generation;
+        averageFitness[i] = average;
+        bestFitness[i] = best;
+        bestOverallFitness[i] = bestOverall;
+        contacts[i] = hydrophobicContacts;
+        overlaps[i] = overlapCount;
+        mutationRates[i] = mutationRate;
+        evaluations[i] = evaluationCount;
+        infeasibleFractions[i] = infeasibleFraction;
+        cacheHitRates[i] = cacheHitRate;
+        cacheEvictions[i] = cacheEvictionCount;
+        tail.lazySet(t + 1); // veröffentlicht den Eintrag
+    }
+
+    private void drain() {
+        try {
+            boolean dirty = false;
+            while (true) {
+                boolean done = closed; // vor tail lesen, damit nach close() kein Eintrag fehlt
+                long h = head.get();
+                long t = tail.get();
+                if (h == t) {
+                    if (done) {
+                        break;
+                    }
+                    if (dirty) {
+                        flush();
+                        dirty = false;
+                    }
+                    if (syncRequested > synced) {
+                        stream.getFD().sync();
+                        synced = h;
+                    }
+                    LockSupport.parkNanos(IDLE_NANOS);
+                    continue;
+                }
+                for (; h < t; h++) {
+                    write((int) (h & (CAPACITY - 1)));
+                }
+                head.lazySet(t);
+                dirty = true;
+            }
+            flush();
+        } catch (IOException e) {
+            failure = e;
+        }
+    }
+
+    private void write(int i) throws IOException {
+        if (printProgress) {
+            System.out.println("Generation " + generations[i]);
+        }
+        if (format == Format.CSV) {
+            csvFormatter.format("%d;%.2f;%.2f;%.2f;%d;%d;%.2f;%d;%.3f;%.3f;%d\n",
+                    generations[i],
+                    averageFitness[i],
+                    bestFitness[i],
+                    bestOverallFitness[i],
+                    contacts[i],
+                    overlaps[i],
+                    mutationRates[i],
+                    evaluations[i],
+                    infeasibleFractions[i],
+                    cacheHitRates[i],
+                    cacheEvictions[i]);
+            if (csvFormatter.ioException() != null) {
+                throw csvFormatter.ioException();
+            }
+        } else {
+            binary.writeInt(generations[i]);
+            binary.writeDouble(averageFitness[i]);
+            binary.writeDouble(bestFitness[i]);
+            binary.writeDouble(bestOverallFitness[i]);
+            binary.writeInt(contacts[i]);
+            binary.writeInt(overlaps[i]);
+            binary.writeDouble(mutationRates[i]);
+            binary.writeLong(evaluations[i]);
+            binary.writeDouble(infeasibleFractions[i]);
+            binary.writeDouble(cacheHitRates[i]);
+            binary.writeLong(cacheEvictions[i]);
+        }
+    }
+
+    private void flush() throws IOException {
+        if (format == Format.CSV) {
+            csv.flush();
+        } else {
+            binary.flush();
+        }
+    }
+
+    // Wartet, bis alle bisherigen Einträge geschrieben und auf der Platte sind; der Lauf geht danach weiter
+    void sync() throws IOException {
+        long target = tail.get();
+        syncRequested = target;
+        while (synced < target) {
+            if (failure != null) {
+                throw failure;
+            }
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(IDLE_NANOS / 10);
+        }
+    }
+
+    // Wartet, bis alle Einträge geschrieben sind, und schließt die Datei
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (format == Format.CSV) {
+            csvFormatter.close();
+        } else {
+            binary.close();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package hpmodel;
+
+import java.util.Arrays;
+
+// Offen adressierte Belegungstabelle für Gitterpunkte (lineares Sondieren), auf dem quadratischen
+// Gitter mit z = 0.
+// Jede belegte Zelle hält eine verkettete Liste der Reste, die auf ihr liegen,
+// damit Überlappungen und H-H-Kontakte in einem Durchlauf gezählt werden können.
+// Geleert wird über einen Generationsstempel, die Tabelle wird pro Thread wiederverwendet
+// und erzeugt im Betrieb keinen Müll. Für die inkrementelle Bewertung kann ein Modell auch
+// eine eigene Tabelle halten und Reste einzeln entfernen und neu einsetzen.
+final class OccupancyTable {
+    private static final ThreadLocal<OccupancyTable> SCRATCH = ThreadLocal.withInitial(() -> new OccupancyTable(64));
+
+    private final long[] keys;
+    private final int[] stamps; // Zelle ist belegt, wenn stamps[slot] == epoch
+    private final int[] heads;  // erster Rest in der Zelle
+    private final int[] counts; // Anzahl der Reste in der Zelle
+    private final int[] next;   // pro Rest: nächster Rest in derselben Zelle
+    private final int[] prev;   // pro Rest: vorheriger Rest in derselben Zelle, für remove()
+    private final int mask;
+    private int epoch = 1;
+    private int used; // belegte Slots seit dem letzten clear(), inkl. geleerter Zellen
+
+    OccupancyTable(int residues) {
+        // Füllgrad nach clear() höchstens 25 %, damit die Sondierungsketten kurz bleiben und
+        // beim Verschieben von Resten (remove/insert) genug Platz für geleerte Zellen bleibt
+        int capacity = Integer.highestOneBit(Math.max(residues, 2) * 4 - 1) << 1;
+        this.keys = new long[capacity];
+        this.stamps = new int[capacity];
+        this.heads = new int[capacity];
+        this.counts = new int[capacity];
+        this.next = new int[residues];
+        this.prev = new int[residues];
+        this.mask = capacity - 1;
+    }
+
+    // Geleerte Tabelle des aktuellen Threads für mindestens so viele Reste
+    static OccupancyTable forCurrentThread(int residues) {
+        OccupancyTable table = SCRATCH.get();
+        if (table.next.length < residues) {
+            table = new OccupancyTable(residues);
+            SCRATCH.set(table);
+        } else {
+            table.clear();
+        }
+        return table;
+    }
+
+    // 21 Bit pro Koordinate, das reicht für Ketten mit bis zu einer Million Resten
+    static long key(int x, int y, int z) {
+        return ((long) (x & 0x1FFFFF) << 42) | ((long) (y & 0x1FFFFF) << 21) | (z & 0x1FFFFF);
+    }
+
+    void clear() {
+        used = 0;
+        if (++epoch == 0) {
+            // Stempel übergelaufen: einmal komplett leeren
+            Arrays.fill(stamps, 0);
+            epoch = 1;
+        }
+    }
+
+    private int slot(long key) {
+        int slot = (int) ((key * 0x9E3779B97F4A7C15L) >>> 40) & mask;
+        while (stamps[slot] == epoch && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    // Legt den Rest auf die Zelle und gibt zurück, wie viele Reste dort schon lagen
+    int insert(int x, int y, int z, int residue) {
+        long key = key(x, y, z);
+        int slot = slot(key);
+        if (stamps[slot] != epoch) {
+            stamps[slot] = epoch;
+            used++;
+            keys[slot] = key;
+            heads[slot] = -1;
+            counts[slot] = 0;
+        }
+        int previous = counts[slot];
+        int head = heads[slot];
+        next[residue] = head;
+        prev[residue] = -1;
+        if (head >= 0) {
+            prev[head] = residue;
+        }
+        heads[slot] = residue;
+        counts[slot] = previous + 1;
+        return previous;
+    }
+
+    // Nimmt den Rest wieder von der Zelle und gibt zurück, wie viele Reste dort noch liegen.
+    // Der Slot bleibt belegt, damit die Sondierungsketten anderer Zellen nicht abreißen
+    int remove(int x, int y, int z, int residue) {
+        int slot = slot(key(x, y, z));
+        int before = prev[residue];
+        int after = next[residue];
+        if (before >= 0) {
+            next[before] = after;
+        } else {
+            heads[slot] = after;
+        }
+        if (after >= 0) {
+            prev[after] = before;
+        }
+        return --counts[slot];
+    }
+
+    // Zu viele geleerte Slots: die Tabelle sollte geleert und neu befüllt werden
+    boolean crowded() {
+        return used > (mask + 1) / 4 + (mask + 1) / 8;
+    }
+
+    // Erster Rest auf der Zelle oder -1, weitere über next()
+    int first(int x, int y, int z) {
+        int slot = slot(key(x, y, z));
+        return stamps[slot] == epoch ? heads[slot] : -1;
+    }
+
+    int next(int residue) {
+        return next[residue];
+    }
+
+    // Anzahl der Reste auf der Zelle
+    int count(int x, int y, int z) {
+        int slot = slot(key(x, y, z));
+        return stamps[slot] == epoch ? counts[slot] : 0;
+    }
+}
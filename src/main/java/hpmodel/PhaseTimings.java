@@ -0,0 +1,257 @@
+package hpmodel;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import jdk.jfr.FlightRecorder;
+
+// Zeiten der Phasen einer Generation, Bewertungen, Allokationen und Warteschlangenlänge des Executors.
+// Jeder Worker schreibt nur in seinen eigenen Block von slots (128 Byte Abstand gegen False Sharing),
+// der GA-Thread liest die Blöcke nach der Barriere von runAll() und setzt sie zurück. Pro Generation
+// kostet das ein paar nanoTime()-Aufrufe pro Paar; JFR-Ereignisse werden erst angelegt, wenn JFR
+// läuft (beim Start oder später per jcmd), sonst würde JFR bei jedem Lauf mit hochgefahren.
+// Die Summen sind per JMX lesbar.
+final class PhaseTimings implements PhaseTimingsMBean {
+    enum Phase {
+        EVALUATION,   // Fitness der Population, in den Workern
+        LOCAL_SEARCH, // memetische Stufe auf den Eliten, in den Workern
+        STATISTICS,   // bestes Individuum, Durchschnitt und Log, im GA-Thread
+        SELECTION,    // Rad bzw. SUS im GA-Thread, Elternwahl in den Workern
+        CROSSOVER,
+        MUTATION,     // inklusive Reparatur
+        BARRIER_WAIT  // Worker, die bei runAll() auf die langsamsten warten, plus Übergabe an den Executor
+    }
+
+    private static final Phase[] PHASES = Phase.values();
+    private static final int TASK_START = PHASES.length;
+    private static final int BUSY = TASK_START + 1;
+    private static final int ALLOCATED = BUSY + 1;
+    private static final int QUEUED = ALLOCATED + 1;
+    private static final int STRIDE = 16;
+    private static final AtomicInteger RUNS = new AtomicInteger();
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final boolean ALLOCATIONS = THREADS instanceof com.sun.management.ThreadMXBean
+            && ((com.sun.management.ThreadMXBean) THREADS).isThreadAllocatedMemorySupported()
+            && ((com.sun.management.ThreadMXBean) THREADS).isThreadAllocatedMemoryEnabled();
+
+    private final int workers;
+    private final long[] slots; // Worker w: slots[w * STRIDE + ...]
+    private final long[] generationNanos = new long[PHASES.length];
+    private long mainAllocated;
+    private long generationStart;
+    private GenerationEvent event;
+
+    // Summen seit Laufbeginn, geschrieben vom GA-Thread, gelesen von JMX
+    private final long[] totalNanos = new long[PHASES.length];
+    private volatile long generations;
+    private volatile long evaluations;
+    private volatile long allocatedBytes;
+    private volatile long lastGenerationNanos;
+    private volatile int maxQueueDepth;
+    private ObjectName name;
+
+    PhaseTimings(int workers) {
+        this.workers = workers;
+        this.slots = new long[(workers + 1) * STRIDE];
+    }
+
+    // Unter hpmodel:type=PhaseTimings,run=<n> beim Plattform-MBean-Server anmelden
+    PhaseTimings register() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            name = new ObjectName("hpmodel:type=PhaseTimings,run=" + RUNS.incrementAndGet());
+            server.registerMBean(this, name);
+        } catch (JMException e) {
+            throw new IllegalStateException("Could not register phase timings", e);
+        }
+        return this;
+    }
+
+    void unregister() {
+        if (name == null) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+        } catch (JMException e) {
+            throw new IllegalStateException("Could not unregister phase timings", e);
+        }
+        name = null;
+    }
+
+    private static long allocatedBytes() {
+        return ALLOCATIONS ? ((com.sun.management.ThreadMXBean) THREADS).getCurrentThreadAllocatedBytes() : 0;
+    }
+
+    // GA-Thread, am Anfang einer Generation
+    void startGeneration() {
+        mainAllocated = allocatedBytes();
+        generationStart = System.nanoTime();
+        if (FlightRecorder.isInitialized()) {
+            event = new GenerationEvent();
+            event.begin();
+        }
+    }
+
+    // Worker, am Anfang einer Aufgabe: queued Aufgaben warten noch in der Warteschlange des Executors
+    void startTask(int worker, int queued) {
+        int base = worker * STRIDE;
+        slots[base + QUEUED] = Math.max(slots[base + QUEUED], queued);
+        slots[base + ALLOCATED] -= allocatedBytes();
+        slots[base + TASK_START] = System.nanoTime();
+    }
+
+    // Worker, am Ende einer Aufgabe
+    void endTask(int worker) {
+        int base = worker * STRIDE;
+        slots[base + BUSY] += System.nanoTime() - slots[base + TASK_START];
+        slots[base + ALLOCATED] += allocatedBytes();
+    }
+
+    // Worker
+    void add(int worker, Phase phase, long nanos) {
+        slots[worker * STRIDE + phase.ordinal()] += nanos;
+    }
+
+    // GA-Thread
+    void add(Phase phase, long nanos) {
+        generationNanos[phase.ordinal()] += nanos;
+    }
+
+    // GA-Thread, nach runAll(): was die Worker in wallNanos nicht gearbeitet haben, ist Wartezeit
+    void barrier(long wallNanos) {
+        long busy = 0;
+        for (int w = 0; w < workers; w++) {
+            busy += slots[w * STRIDE + BUSY];
+            slots[w * STRIDE + BUSY] = 0;
+        }
+        generationNanos[Phase.BARRIER_WAIT.ordinal()] += Math.max(0, wallNanos * workers - busy);
+    }
+
+    // GA-Thread, am Ende einer Generation: Worker-Blöcke einsammeln, Summen und JFR-Ereignis schreiben
+    void endGeneration(int generation, long generationEvaluations) {
+        long allocated = allocatedBytes() - mainAllocated;
+        int queued = 0;
+        for (int w = 0; w < workers; w++) {
+            int base = w * STRIDE;
+            for (int p = 0; p < PHASES.length; p++) {
+                generationNanos[p] += slots[base + p];
+                slots[base + p] = 0;
+            }
+            allocated += slots[base + ALLOCATED];
+            slots[base + ALLOCATED] = 0;
+            queued = Math.max(queued, (int) slots[base + QUEUED]);
+            slots[base + QUEUED] = 0;
+        }
+
+        if (event != null) {
+            event.end();
+        }
+        if (event != null && event.shouldCommit()) {
+            event.generation = generation;
+            event.evaluations = generationEvaluations;
+            event.evaluation = generationNanos[Phase.EVALUATION.ordinal()];
+            event.localSearch = generationNanos[Phase.LOCAL_SEARCH.ordinal()];
+            event.statistics = generationNanos[Phase.STATISTICS.ordinal()];
+            event.selection = generationNanos[Phase.SELECTION.ordinal()];
+            event.crossover = generationNanos[Phase.CROSSOVER.ordinal()];
+            event.mutation = generationNanos[Phase.MUTATION.ordinal()];
+            event.barrierWait = generationNanos[Phase.BARRIER_WAIT.ordinal()];
+            event.allocated = allocated;
+            event.maxQueueDepth = queued;
+            event.commit();
+        }
+        event = null;
+        lastGenerationNanos = System.nanoTime() - generationStart;
+
+        synchronized (totalNanos) {
+            for (int p = 0; p < PHASES.length; p++) {
+                totalNanos[p] += generationNanos[p];
+                generationNanos[p] = 0;
+            }
+        }
+        evaluations += generationEvaluations;
+        allocatedBytes += allocated;
+        maxQueueDepth = Math.max(maxQueueDepth, queued);
+        generations++;
+    }
+
+    // Eine Zeile pro Lauf, z.B. am Ende der Konsolenausgabe
+    String summary() {
+        return String.format(Locale.ROOT, "Phase times (ms): evaluation %.1f, local search %.1f, statistics %.1f, selection %.1f, "
+                        + "crossover %.1f, mutation %.1f, barrier wait %.1f; %d KB allocated per generation, max queue depth %d",
+                getEvaluationMillis(), getLocalSearchMillis(), getStatisticsMillis(), getSelectionMillis(), getCrossoverMillis(),
+                getMutationMillis(), getBarrierWaitMillis(), getAllocatedBytesPerGeneration() / 1024, getMaxQueueDepth());
+    }
+
+    private double millis(Phase phase) {
+        synchronized (totalNanos) {
+            return totalNanos[phase.ordinal()] / 1e6;
+        }
+    }
+
+    @Override
+    public long getGenerations() {
+        return generations;
+    }
+
+    @Override
+    public long getEvaluations() {
+        return evaluations;
+    }
+
+    @Override
+    public double getEvaluationMillis() {
+        return millis(Phase.EVALUATION);
+    }
+
+    @Override
+    public double getLocalSearchMillis() {
+        return millis(Phase.LOCAL_SEARCH);
+    }
+
+    @Override
+    public double getStatisticsMillis() {
+        return millis(Phase.STATISTICS);
+    }
+
+    @Override
+    public double getSelectionMillis() {
+        return millis(Phase.SELECTION);
+    }
+
+    @Override
+    public double getCrossoverMillis() {
+        return millis(Phase.CROSSOVER);
+    }
+
+    @Override
+    public double getMutationMillis() {
+        return millis(Phase.MUTATION);
+    }
+
+    @Override
+    public double getBarrierWaitMillis() {
+        return millis(Phase.BARRIER_WAIT);
+    }
+
+    @Override
+    public double getLastGenerationMillis() {
+        return lastGenerationNanos / 1e6;
+    }
+
+    @Override
+    public long getAllocatedBytesPerGeneration() {
+        long count = generations;
+        return count > 0 ? allocatedBytes / count : 0;
+    }
+
+    @Override
+    public int getMaxQueueDepth() {
+        return maxQueueDepth;
+    }
+}
@@ -0,0 +1,28 @@
+package hpmodel;
+
+// JMX-Sicht auf PhaseTimings (hpmodel:type=PhaseTimings,run=<n>), Zeiten in Millisekunden seit Laufbeginn
+public interface PhaseTimingsMBean {
+    long getGenerations();
+
+    long getEvaluations();
+
+    double getEvaluationMillis();
+
+    double getLocalSearchMillis();
+
+    double getStatisticsMillis();
+
+    double getSelectionMillis();
+
+    double getCrossoverMillis();
+
+    double getMutationMillis();
+
+    double getBarrierWaitMillis();
+
+    double getLastGenerationMillis();
+
+    long getAllocatedBytesPerGeneration();
+
+    int getMaxQueueDepth();
+}
@@ -0,0 +1,227 @@
+package hpmodel;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+// Bewertet die Population in anderen Prozessen (EvaluationWorker), über TCP oder Unix-Domain-Sockets.
+// Jede Verbindung gehört zu einem Lauf: zuerst der Kopf mit Sequenz, Gitter, Kodierung und der
+// größten Stapelgröße (die Population), danach beliebig viele Stapel. Ein Stapel ist die Anzahl und die Genomwörter der Individuen, die Antwort
+// Energie und Überlappungen in derselben Reihenfolge (big endian, wie Checkpoint). Ein Worker
+// beantwortet die Stapel einer Verbindung der Reihe nach, deshalb genügt eine Warteschlange der
+// gesendeten Stapel je Verbindung.
+//
+// Die Zucht schickt jeden fertigen Bereich von Kindern sofort los (submit), verteilt auf alle
+// Verbindungen; die Worker rechnen also schon, während andere Bereiche noch gezüchtet werden.
+// evaluate() am Anfang der nächsten Generation holt die Antworten ab und schickt, was dann noch
+// unbewertet ist (Startpopulation, Neustarts), in einem zweiten Durchgang.
+final class RemoteEvaluator implements AutoCloseable {
+    static final int MAGIC = 0x48504556; // "HPEV"
+    static final int VERSION = 2;
+
+    // Gesendeter Stapel: die Modelle und die Genome, die für sie unterwegs sind
+    private record Batch(HPModel[] models, Genome[] genomes) {
+    }
+
+    private static final class Connection {
+        final SocketChannel channel;
+        final ArrayDeque<Batch> pending = new ArrayDeque<>();
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+
+        Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+    }
+
+    private final Connection[] connections;
+    private final int genomeBytes;
+    private final int maxBatch;
+    private volatile IOException failure;
+
+    RemoteEvaluator(List<String> addresses, String sequence, Lattice lattice, Genome.Encoding encoding, int maxBatch)
+            throws IOException {
+        this.genomeBytes = Genome.wordCount(lattice, sequence.length() - 1) * Long.BYTES;
+        this.maxBatch = maxBatch;
+        List<Connection> opened = new ArrayList<>();
+        try {
+            byte[] sequenceBytes = sequence.getBytes(StandardCharsets.US_ASCII);
+            for (String address : addresses) {
+                SocketAddress socketAddress = parseAddress(address);
+                SocketChannel channel = SocketChannel.open(socketAddress instanceof UnixDomainSocketAddress
+                        ? StandardProtocolFamily.UNIX : StandardProtocolFamily.INET);
+                opened.add(new Connection(channel));
+                channel.connect(socketAddress);
+                if (socketAddress instanceof InetSocketAddress) {
+                    channel.socket().setTcpNoDelay(true);
+                }
+
+                ByteBuffer header = ByteBuffer.allocate(4 * Integer.BYTES + 2 + sequenceBytes.length);
+                header.putInt(MAGIC).putInt(VERSION);
+                header.put((byte) lattice.ordinal()).put((byte) encoding.ordinal());
+                header.putInt(sequenceBytes.length).put(sequenceBytes).putInt(maxBatch);
+                header.flip();
+                writeFully(channel, header);
+                ByteBuffer reply = ByteBuffer.allocate(2 * Integer.BYTES);
+                readFully(channel, reply);
+                reply.flip();
+                if (reply.getInt() != MAGIC || reply.getInt() != VERSION) {
+                    throw new IOException("Not an evaluation worker: " + address);
+                }
+            }
+        } catch (IOException e) {
+            for (Connection connection : opened) {
+                connection.channel.close();
+            }
+            throw e;
+        }
+        this.connections = opened.toArray(new Connection[0]);
+    }
+
+    // "host:port", nur "port" (localhost) oder der Pfad eines Unix-Domain-Sockets
+    static SocketAddress parseAddress(String address) {
+        if (address.matches("\\d+")) {
+            return new InetSocketAddress("localhost", Integer.parseInt(address));
+        }
+        int colon = address.lastIndexOf(':');
+        if (colon > 0 && address.substring(colon + 1).matches("\\d+")) {
+            return new InetSocketAddress(address.substring(0, colon), Integer.parseInt(address.substring(colon + 1)));
+        }
+        return UnixDomainSocketAddress.of(address);
+    }
+
+    // Schickt die unbewerteten Modelle in models[from, to) auf alle Verbindungen verteilt, ohne auf
+    // Antworten zu warten. Wird von mehreren Zuchtthreads gleichzeitig aufgerufen.
+    void submit(HPModel[] models, int from, int to) {
+        if (failure != null) {
+            return;
+        }
+        List<HPModel> unevaluated = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            if (!models[i].isEvaluated()) {
+                unevaluated.add(models[i]);
+            }
+        }
+        try {
+            send(unevaluated);
+        } catch (IOException e) {
+            failure = e;
+        }
+    }
+
+    // Holt alle ausstehenden Antworten, bewertet den Rest der Population entfernt und liefert die Anzahl
+    // der so bewerteten Modelle
+    long evaluate(HPModel[] population) throws IOException {
+        if (failure != null) {
+            throw failure;
+        }
+        long evaluated = collect();
+        List<HPModel> unevaluated = new ArrayList<>();
+        for (HPModel model : population) {
+            if (!model.isEvaluated()) {
+                unevaluated.add(model);
+            }
+        }
+        if (!unevaluated.isEmpty()) {
+            send(unevaluated);
+            evaluated += collect();
+        }
+        return evaluated;
+    }
+
+    // Ein zusammenhängendes Stück je Verbindung, erst alle senden, dann (in collect) alle lesen
+    private void send(List<HPModel> models) throws IOException {
+        int count = models.size();
+        if (count > maxBatch) {
+            throw new IllegalArgumentException(count + " models exceed the batch limit of " + maxBatch);
+        }
+        for (int c = 0; c < connections.length; c++) {
+            int from = GeneticAlgorithm.rangeStart(c, connections.length, count);
+            int to = GeneticAlgorithm.rangeStart(c + 1, connections.length, count);
+            if (from == to) {
+                continue;
+            }
+            HPModel[] batch = models.subList(from, to).toArray(new HPModel[0]);
+            Genome[] genomes = new Genome[batch.length];
+            Connection connection = connections[c];
+            synchronized (connection) {
+                ByteBuffer buffer = buffer(connection, Integer.BYTES + batch.length * genomeBytes);
+                buffer.putInt(batch.length);
+                for (int i = 0; i < batch.length; i++) {
+                    genomes[i] = batch[i].getGenome();
+                    genomes[i].writeWords(buffer);
+                }
+                buffer.flip();
+                writeFully(connection.channel, buffer);
+                connection.pending.add(new Batch(batch, genomes));
+            }
+        }
+    }
+
+    private long collect() throws IOException {
+        long evaluated = 0;
+        for (Connection connection : connections) {
+            synchronized (connection) {
+                Batch batch;
+                while ((batch = connection.pending.poll()) != null) {
+                    ByteBuffer buffer = buffer(connection, batch.models().length * 2 * Integer.BYTES);
+                    readFully(connection.channel, buffer);
+                    buffer.flip();
+                    for (int i = 0; i < batch.models().length; i++) {
+                        int energy = buffer.getInt();
+                        int overlaps = buffer.getInt();
+                        HPModel model = batch.models()[i];
+                        // Nur übernehmen, wenn das Modell noch dasselbe Genom hat und nicht schon bewertet ist
+                        if (model.getGenome() == batch.genomes()[i] && !model.isEvaluated()) {
+                            model.setEvaluation(energy, overlaps);
+                            evaluated++;
+                        }
+                    }
+                }
+            }
+        }
+        return evaluated;
+    }
+
+    private static ByteBuffer buffer(Connection connection, int size) {
+        if (connection.buffer.capacity() < size) {
+            connection.buffer = ByteBuffer.allocate(Math.max(size, 2 * connection.buffer.capacity()));
+        }
+        connection.buffer.clear().limit(size);
+        return connection.buffer;
+    }
+
+    static void writeFully(SocketChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    static void readFully(ReadableByteChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("Connection closed by the other side");
+            }
+        }
+    }
+
+    int connections() {
+        return connections.length;
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (Connection connection : connections) {
+            connection.channel.close();
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package hpmodel;
+
+import java.util.SplittableRandom;
+
+// Fitnessproportionale Auswahl, einmal pro Generation aufgebaut und danach nur noch gelesen
+// (von mehreren Threads gleichzeitig). Jeder Kandidat bekommt einen Bereich der Breite
+// fitness / Summe aller Fitness-Scores, gezogen wird über eine Binärsuche auf den kumulierten
+// Summen (O(log P)), über eine Alias-Tabelle (O(1)) oder per Stochastic Universal Sampling.
+final class RouletteWheel {
+    private final double[] cumulative;  // cumulative[i] = Summe der Fitness von 0 bis i
+    private final double[] probability; // Alias-Methode: Wahrscheinlichkeit, Spalte i selbst zu nehmen
+    private final int[] alias;          // Alias-Methode: sonst dieser Kandidat
+    private final int[] small;          // Arbeitslisten für den Aufbau der Alias-Tabelle
+    private final int[] large;
+    private int size;
+    private double total;
+
+    RouletteWheel(int capacity) {
+        this.cumulative = new double[capacity];
+        this.probability = new double[capacity];
+        this.alias = new int[capacity];
+        this.small = new int[capacity];
+        this.large = new int[capacity];
+    }
+
+    // Baut kumulierte Summen und Alias-Tabelle (Vose) für die aktuelle Population auf
+    void build(HPModel[] population) {
+        size = population.length;
+        double sum = 0.0;
+        for (int i = 0; i < size; i++) {
+            sum += population[i].calculateFitnessScore();
+            cumulative[i] = sum;
+        }
+        total = sum;
+
+        int smallCount = 0, largeCount = 0;
+        for (int i = 0; i < size; i++) {
+            // Alle Fitness-Scores 0: jeder Kandidat gleich wahrscheinlich
+            probability[i] = total > 0.0 ? population[i].calculateFitnessScore() * size / total : 1.0;
+            if (probability[i] < 1.0) {
+                small[smallCount++] = i;
+            } else {
+                large[largeCount++] = i;
+            }
+        }
+        while (smallCount > 0 && largeCount > 0) {
+            int less = small[--smallCount];
+            int more = large[--largeCount];
+            alias[less] = more;
+            probability[more] += probability[less] - 1.0;
+            if (probability[more] < 1.0) {
+                small[smallCount++] = more;
+            } else {
+                large[largeCount++] = more;
+            }
+        }
+        // Rest (auch Rundungsfehler) ist sicher
+        while (largeCount > 0) {
+            probability[large[--largeCount]] = 1.0;
+        }
+        while (smallCount > 0) {
+            probability[small[--smallCount]] = 1.0;
+        }
+    }
+
+    // Binärsuche: erster Kandidat, dessen kumulierte Summe über dem Zufallswert liegt
+    int pick(SplittableRandom random) {
+        if (total <= 0.0) {
+            return random.nextInt(size);
+        }
+        return indexOf(random.nextDouble() * total);
+    }
+
+    // Alias-Methode: eine Spalte gleichverteilt, dann Münzwurf zwischen Spalte und Alias
+    int pickAlias(SplittableRandom random) {
+        int column = random.nextInt(size);
+        return random.nextDouble() < probability[column] ? column : alias[column];
+    }
+
+    // Stochastic Universal Sampling: count gleichmäßig verteilte Zeiger mit einem gemeinsamen
+    // zufälligen Versatz. Die Auswahl landet aufsteigend sortiert in selected.
+    void sampleUniversal(int count, SplittableRandom random, int[] selected) {
+        if (total <= 0.0) {
+            for (int i = 0; i < count; i++) {
+                selected[i] = random.nextInt(size);
+            }
+            return;
+        }
+        double step = total / count;
+        double pointer = random.nextDouble() * step;
+        int index = 0;
+        for (int i = 0; i < count; i++) {
+            while (index < size - 1 && cumulative[index] <= pointer) {
+                index++;
+            }
+            selected[i] = index;
+            pointer += step;
+        }
+    }
+
+    private int indexOf(double value) {
+        int low = 0, high = size - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cumulative[mid] <= value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
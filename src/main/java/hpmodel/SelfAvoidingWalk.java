@@ -0,0 +1,150 @@
+package hpmodel;
+
+// Prüft und repariert Faltungen als selbstvermeidende Wege (kein Gitterpunkt doppelt belegt).
+// Die Reparatur lässt die Kette bis zur ersten Kollision liegen und legt sie ab dort per
+// Tiefensuche neu, wobei für jeden Zug zuerst der ursprüngliche Zug versucht wird, damit möglichst
+// viel von der alten Faltung erhalten bleibt. Die Suche ist durch ein Schrittbudget begrenzt und
+// darf bei Sackgassen auch in den Teil vor der Kollision zurückgehen. Die Zugcodes sind auf beiden
+// Gittern gleich, nur die Reparatur muss wissen, wie viele Richtungen sie versuchen darf.
+final class SelfAvoidingWalk {
+    static final int BUDGET_PER_RESIDUE = 32;
+
+    private static final ThreadLocal<SelfAvoidingWalk> SCRATCH = ThreadLocal.withInitial(() -> new SelfAvoidingWalk(64));
+
+    private final OccupancyTable table;
+    private final int[] xs;
+    private final int[] ys;
+    private final int[] zs;
+    private final byte[] original;
+    private final int[] attempts; // pro Rest: Anzahl der schon versuchten Züge
+
+    private SelfAvoidingWalk(int residues) {
+        this.table = new OccupancyTable(residues);
+        this.xs = new int[residues];
+        this.ys = new int[residues];
+        this.zs = new int[residues];
+        this.original = new byte[residues];
+        this.attempts = new int[residues];
+    }
+
+    private static SelfAvoidingWalk forCurrentThread(int residues) {
+        SelfAvoidingWalk walk = SCRATCH.get();
+        if (walk.xs.length < residues) {
+            walk = new SelfAvoidingWalk(residues);
+            SCRATCH.set(walk);
+        }
+        walk.table.clear();
+        return walk;
+    }
+
+    static boolean isSelfAvoiding(byte[] moveCodes) {
+        SelfAvoidingWalk walk = forCurrentThread(moveCodes.length + 1);
+        return walk.placeUntilCollision(moveCodes) == moveCodes.length + 1;
+    }
+
+    static boolean repair(byte[] moveCodes) {
+        return repair(moveCodes, Lattice.SQUARE);
+    }
+
+    // Repariert moveCodes in place, false wenn das Budget nicht gereicht hat (moveCodes ist dann verändert)
+    static boolean repair(byte[] moveCodes, Lattice lattice) {
+        int residues = moveCodes.length + 1;
+        SelfAvoidingWalk walk = forCurrentThread(residues);
+        int placed = walk.placeUntilCollision(moveCodes);
+        return placed == residues
+                || walk.search(moveCodes, placed, lattice.directions(), BUDGET_PER_RESIDUE * residues);
+    }
+
+    // Legt die Reste der Reihe nach und gibt die Anzahl der Reste vor der ersten Kollision zurück
+    private int placeUntilCollision(byte[] moveCodes) {
+        int residues = moveCodes.length + 1;
+        xs[0] = 0;
+        ys[0] = 0;
+        zs[0] = 0;
+        table.insert(0, 0, 0, 0);
+        for (int r = 1; r < residues; r++) {
+            byte move = moveCodes[r - 1];
+            int x = xs[r - 1] + Lattice.DX[move];
+            int y = ys[r - 1] + Lattice.DY[move];
+            int z = zs[r - 1] + Lattice.DZ[move];
+            if (table.count(x, y, z) > 0) {
+                return r;
+            }
+            table.insert(x, y, z, r);
+            xs[r] = x;
+            ys[r] = y;
+            zs[r] = z;
+        }
+        return residues;
+    }
+
+    private boolean search(byte[] moveCodes, int collision, int directions, int budget) {
+        int residues = moveCodes.length + 1;
+        System.arraycopy(moveCodes, 0, original, 0, moveCodes.length);
+        for (int r = 1; r < collision; r++) {
+            attempts[r] = 1; // der ursprüngliche Zug liegt schon
+        }
+        attempts[collision] = 0;
+
+        int r = collision;
+        for (int steps = 0; r < residues; steps++) {
+            if (steps > budget) {
+                return false;
+            }
+            int move = candidate(moveCodes, r - 1, attempts[r], directions);
+            if (move < 0) {
+                // Sackgasse: einen Rest zurück und dort den nächsten Zug versuchen
+                if (--r == 0) {
+                    return false;
+                }
+                table.remove(xs[r], ys[r], zs[r], r);
+                continue;
+            }
+            attempts[r]++;
+            int x = xs[r - 1] + Lattice.DX[move];
+            int y = ys[r - 1] + Lattice.DY[move];
+            int z = zs[r - 1] + Lattice.DZ[move];
+            if (table.count(x, y, z) > 0) {
+                continue;
+            }
+            if (table.crowded()) {
+                rebuild(r);
+            }
+            table.insert(x, y, z, r);
+            moveCodes[r - 1] = (byte) move;
+            xs[r] = x;
+            ys[r] = y;
+            zs[r] = z;
+            if (++r < residues) {
+                attempts[r] = 0;
+            }
+        }
+        return true;
+    }
+
+    // k-ter Kandidat für Zug m: zuerst der ursprüngliche Zug, dann die übrigen ohne Rückschritt, -1 wenn keiner mehr
+    private int candidate(byte[] moveCodes, int m, int k, int directions) {
+        int reverse = m > 0 ? moveCodes[m - 1] ^ 1 : -1;
+        int first = original[m];
+        if (first != reverse) {
+            if (k == 0) {
+                return first;
+            }
+            k--;
+        }
+        for (int move = 0; move < directions; move++) {
+            if (move != reverse && move != first && k-- == 0) {
+                return move;
+            }
+        }
+        return -1;
+    }
+
+    // Zu viele geleerte Zellen durch das Zurückgehen: Tabelle leeren und die liegenden Reste neu eintragen
+    private void rebuild(int placed) {
+        table.clear();
+        for (int r = 0; r < placed; r++) {
+            table.insert(xs[r], ys[r], zs[r], r);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package hpmodel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Steady-state GA without generations: every worker keeps selecting parents from the shared
+// population, breeds two children, evaluates them and lets each one replace the worst of a few
+// randomly sampled individuals if it is better. Slots are replaced with compareAndSet, so workers
+// never lock and never wait for each other. The run ends when the evaluation budget is used up.
+final class SteadyStateGA {
+    private static final int REPLACEMENT_SAMPLE = 4; // replace the worst of this many random slots
+    private static final int REPLACEMENT_ATTEMPTS = 3;
+
+    private final String sequence;
+    private final GeneticAlgorithm.Feasibility feasibility;
+    private final AtomicReferenceArray<HPModel> population;
+    private final AtomicReference<HPModel> best = new AtomicReference<>();
+    private final AtomicLong budget = new AtomicLong();
+    private final LongAdder evaluations = new LongAdder(); // one cell per contending worker, summed at the end
+    private final AtomicLong timeToTarget = new AtomicLong(-1);
+    private final int targetEnergy;
+    private long startTime;
+
+    // targetEnergy 0 means no target
+    SteadyStateGA(String sequence, HPModel[] initialPopulation, int targetEnergy, GeneticAlgorithm.Feasibility feasibility) {
+        this.sequence = sequence;
+        this.feasibility = feasibility;
+        this.population = new AtomicReferenceArray<>(initialPopulation);
+        this.targetEnergy = targetEnergy;
+        this.startTime = System.nanoTime();
+    }
+
+    // Breed until maxEvaluations offspring have been evaluated, one worker per random generator
+    HPModel run(long maxEvaluations, SplittableRandom[] workerRandoms) {
+        budget.set(maxEvaluations);
+        startTime = System.nanoTime();
+        // The initial population counts from the same start, a target it already meets is reached at 0 s
+        for (int i = 0; i < population.length(); i++) {
+            offerBest(population.get(i));
+        }
+        // Virtuelle Threads gibt es erst ab Java 21, die Worker rechnen ohnehin nur
+        ForkJoinPool pool = new ForkJoinPool(workerRandoms.length);
+        List<Callable<Void>> tasks = new ArrayList<>(workerRandoms.length);
+        int epoch = Math.max(1, population.length() / workerRandoms.length);
+        for (SplittableRandom random : workerRandoms) {
+            tasks.add(() -> {
+                work(random, epoch);
+                return null;
+            });
+        }
+        GeneticAlgorithm.runAll(pool, tasks);
+        pool.shutdown();
+        return best.get();
+    }
+
+    long evaluations() {
+        return evaluations.sum();
+    }
+
+    double seconds() {
+        return (System.nanoTime() - startTime) / 1e9;
+    }
+
+    // Seconds until the target energy was reached without overlaps, negative if never
+    double secondsToTarget() {
+        long nanos = timeToTarget.get();
+        return nanos < 0 ? -1.0 : nanos / 1e9;
+    }
+
+    private void work(SplittableRandom random, int epoch) {
+        // Jeder Worker passt seine eigene Mutationsrate an, nach je epoch Kindern wie nach einer Generation
+        double mutationRate = GeneticAlgorithm.INITIAL_MUTATION_RATE;
+        double previousBestFitness = Double.NEGATIVE_INFINITY;
+        double bestInEpoch = Double.NEGATIVE_INFINITY;
+        int bred = 0;
+
+        while (budget.getAndAdd(-2) > 0) {
+            HPModel parent1 = tournamentSelection(random);
+            HPModel parent2 = tournamentSelection(random);
+            for (HPModel offspring : GeneticAlgorithm.offspring(parent1, parent2, random, mutationRate, sequence, feasibility)) {
+                double fitness = offspring.calculateFitnessScore();
+                evaluations.increment();
+                bestInEpoch = Math.max(bestInEpoch, fitness);
+                replaceWorse(offspring, random);
+                offerBest(offspring);
+
+                if (++bred % epoch == 0) {
+                    mutationRate = GeneticAlgorithm.adaptMutationRate(mutationRate, bestInEpoch, previousBestFitness);
+                    previousBestFitness = bestInEpoch;
+                    bestInEpoch = Double.NEGATIVE_INFINITY;
+                }
+            }
+        }
+    }
+
+    // Same rule as GeneticAlgorithm.tournamentSelection, on the shared population
+    private HPModel tournamentSelection(SplittableRandom random) {
+        int k = 20;
+        double t = 0.75;
+        int size = population.length();
+        HPModel bestCandidate = population.get(random.nextInt(size));
+        for (int i = 1; i < k; i++) {
+            HPModel candidate = population.get(random.nextInt(size));
+            double r = random.nextDouble();
+            if ((candidate.calculateFitnessScore() > bestCandidate.calculateFitnessScore() && r < t) ||
+                (candidate.calculateFitnessScore() < bestCandidate.calculateFitnessScore() && r >= t)) {
+                bestCandidate = candidate;
+            }
+        }
+        return bestCandidate;
+    }
+
+    // Replace the worst of a few random slots. If another worker changed that slot in the
+    // meantime, sample again instead of waiting
+    private void replaceWorse(HPModel offspring, SplittableRandom random) {
+        int size = population.length();
+        for (int attempt = 0; attempt < REPLACEMENT_ATTEMPTS; attempt++) {
+            int worst = random.nextInt(size);
+            HPModel worstModel = population.get(worst);
+            for (int i = 1; i < REPLACEMENT_SAMPLE; i++) {
+                int slot = random.nextInt(size);
+                HPModel model = population.get(slot);
+                if (model.calculateFitnessScore() < worstModel.calculateFitnessScore()) {
+                    worst = slot;
+                    worstModel = model;
+                }
+            }
+            if (offspring.calculateFitnessScore() <= worstModel.calculateFitnessScore()) {
+                return;
+            }
+            if (population.compareAndSet(worst, worstModel, offspring)) {
+                return;
+            }
+        }
+    }
+
+    private void offerBest(HPModel model) {
+        HPModel current;
+        do {
+            current = best.get();
+            if (current != null && model.calculateFitnessScore() <= current.calculateFitnessScore()) {
+                return;
+            }
+        } while (!best.compareAndSet(current, model));
+
+        if (GeneticAlgorithm.reachedTarget(model, targetEnergy)) {
+            timeToTarget.compareAndSet(-1, System.nanoTime() - startTime);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package hpmodel;
+
+import java.util.Locale;
+
+// Abbruchkriterien des generationellen GA, alle optional: Zielenergie erreicht, seit stagnation
+// Generationen keine bessere Lösung, Diversität der Population unter minDiversity, Zeitbudget
+// verbraucht. Ohne Kriterien läuft der GA wie bisher alle Generationen.
+final class Termination {
+    enum Reason {
+        TARGET,      // --target-energy erreicht, ohne Überlappungen
+        STAGNATION,  // --stagnation Generationen ohne Verbesserung der besten Lösung
+        DIVERSITY,   // mittlere Hamming-Distanz unter --min-diversity
+        TIME_LIMIT   // --time-limit Sekunden
+    }
+
+    private final boolean stopAtTarget;
+    private final int stagnation;
+    private final double minDiversity;
+    private final double timeLimit;
+    private final Diversity diversity;
+    private int lastImprovement;
+    private double bestFitness;
+    private double lastDiversity = Double.NaN;
+
+    // lastImprovement und bestFitness kommen bei einem fortgesetzten Lauf aus dem Checkpoint
+    Termination(GeneticAlgorithm.Options options, int length, Lattice lattice, int lastImprovement, double bestFitness) {
+        this.stopAtTarget = options.stopAtTarget;
+        this.stagnation = options.stagnation;
+        this.minDiversity = options.minDiversity;
+        this.timeLimit = options.timeLimit;
+        this.diversity = minDiversity > 0 ? new Diversity(length, lattice) : null;
+        this.lastImprovement = lastImprovement;
+        this.bestFitness = bestFitness;
+    }
+
+    // Nach der Statistik einer Generation; null: weiterlaufen
+    Reason check(int generation, HPModel bestSolution, HPModel[] population, boolean reachedTarget, double elapsedSeconds) {
+        if (bestSolution.calculateFitnessScore() > bestFitness) {
+            bestFitness = bestSolution.calculateFitnessScore();
+            lastImprovement = generation;
+        }
+        if (stopAtTarget && reachedTarget) {
+            return Reason.TARGET;
+        }
+        if (timeLimit > 0 && elapsedSeconds >= timeLimit) {
+            return Reason.TIME_LIMIT;
+        }
+        if (stagnation > 0 && generation - lastImprovement >= stagnation) {
+            return Reason.STAGNATION;
+        }
+        if (diversity != null) {
+            diversity.clear();
+            for (HPModel model : population) {
+                diversity.add(model);
+            }
+            lastDiversity = diversity.meanHammingDistance();
+            if (lastDiversity < minDiversity) {
+                return Reason.DIVERSITY;
+            }
+        }
+        return null;
+    }
+
+    // Nach einem Neustart beginnt das Stagnationsfenster von vorn
+    void restarted(int generation) {
+        lastImprovement = generation;
+    }
+
+    int lastImprovement() {
+        return lastImprovement;
+    }
+
+    String describe(Reason reason) {
+        return switch (reason) {
+            case TARGET -> "target energy reached";
+            case STAGNATION -> stagnation + " generations without improvement";
+            case DIVERSITY -> String.format(Locale.ROOT, "mean Hamming distance %.3f below %.3f", lastDiversity, minDiversity);
+            case TIME_LIMIT -> String.format(Locale.ROOT, "time limit of %.1f s", timeLimit);
+        };
+    }
+}